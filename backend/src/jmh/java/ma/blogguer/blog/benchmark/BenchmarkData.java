@@ -0,0 +1,100 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.service.JwtService;
+import ma.blogguer.blog.service.LikeCounterService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Jeux de données partagés par les benchmarks.
+ */
+final class BenchmarkData {
+
+    static final String JWT_SECRET = "404E635266556A586E3272357538782F413F4428472B4B6250645367566B5970";
+
+    private BenchmarkData() {
+    }
+
+    static User user() {
+        return User.builder()
+                .id(42L)
+                .username("bench")
+                .email("bench@blog.ma")
+                .password("x")
+                .role(User.Role.BLOGGER)
+                .avatar("https://ui-avatars.com/api/?name=bench")
+                .enabled(true)
+                .build();
+    }
+
+    // claimsCacheSize = 0 : cache des claims quasi inopérant (éviction immédiate)
+    static JwtService jwtService(long claimsCacheSize) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", JWT_SECRET);
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86_400_000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", 604_800_000L);
+        ReflectionTestUtils.setField(service, "claimsCacheMaxSize", claimsCacheSize);
+        ReflectionTestUtils.setField(service, "claimsCacheTtlSeconds", 300L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    // Aucune variation en attente et jamais de flush : ni DataSource ni gestionnaire de transactions
+    static LikeCounterService likeCounters() {
+        return new LikeCounterService(new JdbcTemplate(), new TransactionTemplate());
+    }
+
+    // Page de résumés de posts (ids 1..count) d'un même auteur
+    static List<PostSummary> summaries(int count) {
+        User author = user();
+        LocalDateTime now = LocalDateTime.of(2025, 1, 15, 10, 30);
+        List<PostSummary> summaries = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            summaries.add(new PostSummary(id, "Post " + id, "Résumé du post " + id, "Technique", null, 3,
+                    (int) id, 0, now, now, author.getId(), author.getDisplayUsername(), author.getEmail(),
+                    author.getAvatar()));
+        }
+        return summaries;
+    }
+
+    // Texte d'article d'environ `bytes` caractères : mots de 2 à 10 lettres, espaces,
+    // retours à la ligne et paragraphes, contenu identique d'une exécution à l'autre
+    static String article(int bytes) {
+        Random random = new Random(bytes);
+        StringBuilder text = new StringBuilder(bytes + 16);
+        while (text.length() < bytes) {
+            int letters = 2 + random.nextInt(9);
+            for (int i = 0; i < letters; i++) {
+                text.append((char) ('a' + random.nextInt(26)));
+            }
+            int separator = random.nextInt(20);
+            text.append(separator == 0 ? "\n\n" : separator == 1 ? ".\n" : " ");
+        }
+        return text.toString();
+    }
+
+    // Dépôt minimal en mémoire : seules les recherches d'un utilisateur sont servies
+    static UserRepository userRepository(User user) {
+        return (UserRepository) Proxy.newProxyInstance(
+                UserRepository.class.getClassLoader(),
+                new Class<?>[] { UserRepository.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById", "findByEmail" -> Optional.of(user);
+                    case "toString" -> "InMemoryUserRepository";
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,66 @@
+package ma.blogguer.blog.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import ma.blogguer.blog.dto.OAuth2UserInfo;
+import ma.blogguer.blog.service.GoogleAuthService;
+import ma.blogguer.blog.service.GoogleKeySource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vérification locale d'un ID token Google (RS256, clé RSA 2048 bits comme chez Google),
+ * clés déjà en cache : c'est le coût d'une connexion Google hors appel réseau, qui
+ * remplace l'aller-retour vers tokeninfo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GoogleTokenBenchmark {
+
+    private GoogleAuthService service;
+    private String token;
+
+    @Setup
+    public void setUp() throws NoSuchAlgorithmException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair keyPair = generator.generateKeyPair();
+
+        GoogleKeySource keySource = () -> Map.of("bench", keyPair.getPublic());
+        service = new GoogleAuthService(keySource);
+        ReflectionTestUtils.setField(service, "googleClientId", "bench-client-id");
+        ReflectionTestUtils.setField(service, "clockSkewSeconds", 60L);
+        ReflectionTestUtils.setField(service, "minReloadIntervalMs", 60_000L);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        service.refreshKeys();
+
+        long now = System.currentTimeMillis();
+        token = Jwts.builder()
+                .setHeaderParam("kid", "bench")
+                .setSubject("1234567890")
+                .setAudience("bench-client-id")
+                .setIssuer("https://accounts.google.com")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 3_600_000))
+                .claim("email", "reader@gmail.com")
+                .claim("name", "Reader Bench")
+                .signWith(keyPair.getPrivate(), SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    @Benchmark
+    public OAuth2UserInfo validateGoogleToken() {
+        return service.validateGoogleToken(token);
+    }
+}
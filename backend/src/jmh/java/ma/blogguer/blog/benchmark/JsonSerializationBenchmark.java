@@ -0,0 +1,46 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.service.PostMapper;
+import org.openjdk.jmh.annotations.*;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sérialisation Jackson d'une page de List&lt;PostResponse&gt;, telle que renvoyée
+ * par les endpoints de liste (tags et auteur inclus, sans contenu).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+
+    @Param({ "20", "50" })
+    public int pageSize;
+
+    private JsonMapper jsonMapper;
+    private List<PostResponse> page;
+
+    @Setup
+    public void setUp() {
+        jsonMapper = JsonMapper.builder().build();
+        PostMapper mapper = new PostMapper(BenchmarkData.likeCounters());
+        List<String> tags = List.of("java", "spring", "performance");
+        page = new ArrayList<>(pageSize);
+        for (PostSummary summary : BenchmarkData.summaries(pageSize)) {
+            page.add(mapper.toResponse(summary, tags, false));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializePage() {
+        return jsonMapper.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,84 @@
+package ma.blogguer.blog.benchmark;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ma.blogguer.blog.config.JwtAuthenticationFilter;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.service.JwtService;
+import ma.blogguer.blog.service.UserStateCache;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût par requête de l'authentification JWT.
+ * - legacyFilterWork : ancien comportement (clé décodée et parser construit à chaque
+ *   appel, token parsé trois fois)
+ * - filter : JwtAuthenticationFilter actuel (parser unique, claims en cache),
+ *   avec ou sans chargement de l'utilisateur (stateless)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    @Param({ "true", "false" })
+    public boolean stateless;
+
+    private JwtService jwtService;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkData.jwtService(10_000L);
+        User user = BenchmarkData.user();
+        token = jwtService.generateToken(user);
+        UserDetailsService userDetailsService = username -> user;
+        UserStateCache userStateCache = new UserStateCache(BenchmarkData.userRepository(user));
+        ReflectionTestUtils.setField(userStateCache, "maxSize", 1000L);
+        ReflectionTestUtils.setField(userStateCache, "ttlSeconds", 600L);
+        ReflectionTestUtils.invokeMethod(userStateCache, "init");
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, userStateCache, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "stateless", stateless);
+        ReflectionTestUtils.invokeMethod(filter, "init");
+    }
+
+    @Benchmark
+    public Object filter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+
+    @Benchmark
+    public boolean legacyFilterWork() {
+        String subject = legacyParse(token).getSubject();
+        boolean sameUser = legacyParse(token).getSubject().equals(subject);
+        return sameUser && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(Decoders.BASE64.decode(BenchmarkData.JWT_SECRET)))
+                .build()
+                .parseClaimsJws(token)
+                .getBody();
+    }
+}
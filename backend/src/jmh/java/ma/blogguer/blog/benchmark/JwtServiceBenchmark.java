@@ -0,0 +1,51 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Opérations de JwtService appelées à chaque connexion (generateToken) ou requête
+ * authentifiée (extractUsername, isTokenValid).
+ * claimsCacheSize = 0 : le cache des claims ne retient (presque) rien, chaque appel
+ * paie l'empreinte du token et la vérification de signature.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    @Param({ "0", "10000" })
+    public long claimsCacheSize;
+
+    private JwtService jwtService;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = BenchmarkData.jwtService(claimsCacheSize);
+        user = BenchmarkData.user();
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user);
+    }
+}
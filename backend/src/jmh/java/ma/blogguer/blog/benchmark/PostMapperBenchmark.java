@@ -0,0 +1,124 @@
+package ma.blogguer.blog.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ma.blogguer.blog.dto.AuthorDTO;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.service.PostMapper;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boucle de conversion d'une page de posts en PostResponse, logs au niveau INFO
+ * (niveau de production). À lancer avec -prof gc pour comparer gc.alloc.rate.norm :
+ * - legacyEntityPage : ancienne conversion avec ses log.debug/log.warn par post
+ * - entityPage / summaryPage : PostMapper, sans aucun appel de log
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PostMapperBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(PostMapperBenchmark.class);
+
+    @Param({ "20" })
+    public int pageSize;
+
+    private PostMapper mapper;
+    private List<Post> posts;
+    private List<PostSummary> summaries;
+    private List<String> tags;
+
+    @Setup
+    public void setUp() {
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.INFO);
+        mapper = new PostMapper(BenchmarkData.likeCounters());
+        User author = BenchmarkData.user();
+        tags = List.of("java", "spring");
+        posts = new ArrayList<>();
+        summaries = BenchmarkData.summaries(pageSize);
+        LocalDateTime now = LocalDateTime.now();
+        for (long id = 1; id <= pageSize; id++) {
+            posts.add(Post.builder()
+                    .id(id)
+                    .title("Post " + id)
+                    .content("Contenu du post " + id)
+                    .resume("Résumé " + id)
+                    .category("Technique")
+                    .readTime(3)
+                    .tags(tags)
+                    .author(author)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public List<PostResponse> summaryPage() {
+        List<PostResponse> responses = new ArrayList<>(summaries.size());
+        for (PostSummary summary : summaries) {
+            responses.add(mapper.toResponse(summary, tags, false));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<PostResponse> entityPage() {
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            responses.add(mapper.toResponse(post, mapper.toAuthorDTO(post.getAuthor()), false));
+        }
+        return responses;
+    }
+
+    @Benchmark
+    public List<PostResponse> legacyEntityPage() {
+        List<PostResponse> responses = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            responses.add(legacyToPostResponse(post, "reader@blog.ma"));
+        }
+        return responses;
+    }
+
+    // Reprise de l'ancien PostService.toPostResponse / toAuthorDTO (sans la vérification du like)
+    private PostResponse legacyToPostResponse(Post post, String userEmail) {
+        log.debug("🔄 toPostResponse - Post ID: {}, UserEmail: {}", post.getId(), userEmail);
+        try {
+            log.debug("💙 Vérification like pour post {} par user {}", post.getId(), userEmail);
+            log.debug("👤 Récupération de l'auteur pour post {}", post.getId());
+            User author = post.getAuthor();
+            if (author == null) {
+                log.warn("⚠️ Post {} n'a pas d'auteur!", post.getId());
+            } else {
+                log.debug("✅ Auteur trouvé: {} (ID: {})", author.getDisplayUsername(), author.getId());
+            }
+            log.debug("🏗️ Construction de PostResponse pour post {}", post.getId());
+            return mapper.toResponse(post, legacyToAuthorDTO(author), false);
+        } catch (Exception e) {
+            log.error("❌ ERREUR dans toPostResponse pour post {}: {}", post.getId(), e.getMessage(), e);
+            throw new RuntimeException("Erreur lors de la conversion du post " + post.getId(), e);
+        }
+    }
+
+    private AuthorDTO legacyToAuthorDTO(User user) {
+        log.debug("👤 toAuthorDTO - User: {}", user != null ? user.getId() : "null");
+        if (user == null) {
+            log.warn("⚠️ Auteur null détecté, utilisation d'un auteur par défaut");
+            return mapper.toAuthorDTO((User) null);
+        }
+        log.debug("✅ Création AuthorDTO pour user {} - {}", user.getId(), user.getDisplayUsername());
+        return mapper.toAuthorDTO(user);
+    }
+}
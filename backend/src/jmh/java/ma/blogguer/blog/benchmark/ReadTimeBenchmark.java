@@ -0,0 +1,44 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.util.TextStats;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calcul du temps de lecture à la création d'un post, sur des contenus de 1 Ko à 1 Mo.
+ * - legacySplit : ancien calcul, content.split("\\s+") (regex + une String par mot)
+ * - textStats : TextStats.of, parcours unique sans allocation par mot
+ * Avec -prof gc, comparer gc.alloc.rate.norm.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReadTimeBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    public int contentBytes;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = BenchmarkData.article(contentBytes);
+    }
+
+    @Benchmark
+    public int legacySplit() {
+        if (content == null || content.isEmpty())
+            return 0;
+        int wordCount = content.split("\\s+").length;
+        return (int) Math.ceil(wordCount / 200.0);
+    }
+
+    @Benchmark
+    public int textStats() {
+        return TextStats.of(content).getReadTimeMinutes();
+    }
+}
@@ -0,0 +1,78 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latence d'une recherche sur un index de posts synthétiques (vocabulaire
+ * de 20 000 mots, distribution de Zipf).
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.args="SearchIndexBenchmark"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx4g")
+public class SearchIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"100000"})
+    private int posts;
+
+    private InvertedIndex index;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        index = new InvertedIndex(50);
+        for (long id = 1; id <= posts; id++) {
+            index.index(id, words(random, 8), words(random, 30), words(random, 300),
+                    List.of(word(random), word(random)));
+        }
+    }
+
+    @Benchmark
+    public InvertedIndex.SearchResult rareTerms() {
+        return index.search("mot15000 mot18000", 0, 20);
+    }
+
+    @Benchmark
+    public InvertedIndex.SearchResult commonTerms() {
+        return index.search("mot1 mot2 mot3", 0, 20);
+    }
+
+    @Benchmark
+    public InvertedIndex.SearchResult prefix() {
+        return index.search("mot12*", 0, 20);
+    }
+
+    private static String words(SplittableRandom random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(word(random)).append(' ');
+        }
+        return sb.toString();
+    }
+
+    // Zipf approximatif : les petits numéros sont beaucoup plus fréquents
+    private static String word(SplittableRandom random) {
+        return "mot" + (int) Math.pow(VOCABULARY, random.nextDouble());
+    }
+}
@@ -0,0 +1,196 @@
+package ma.blogguer.blog.benchmark;
+
+import ma.blogguer.blog.BlogApplication;
+import ma.blogguer.blog.config.VirtualThreadPinningMonitor;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.service.JwtService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.server.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge HTTP du tiers web : threads de plateforme contre threads virtuels.
+ *
+ * Démarre l'application deux fois (H2 en mémoire, port aléatoire) et maintient
+ * {@code load.connections} clients simultanés, chacun sur sa propre connexion,
+ * qui alternent GET /api/posts et POST /api/posts/{id}/like pendant {@code load.seconds}.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbench.main="-Dload.connections=5000 ma.blogguer.blog.benchmark.WebTierLoadTest"
+ *
+ * H2 se synchronise en interne : les épinglages signalés en mode virtuel viennent
+ * du pilote de test, pas de MySQL Connector/J (sans synchronized depuis la 9.0).
+ */
+public final class WebTierLoadTest {
+
+    private static final int USERS = 200;
+    private static final int POSTS = 50;
+
+    public static void main(String[] args) throws Exception {
+        int connections = Integer.getInteger("load.connections", 5000);
+        int seconds = Integer.getInteger("load.seconds", 20);
+        String[] modes = System.getProperty("load.modes", "platform,virtual").split(",");
+
+        List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %-5s %9s %9s %9s %9s %8s %7s",
+                "mode", "route", "requests", "req/s", "p50 ms", "p99 ms", "errors", "pinned"));
+        for (String mode : modes) {
+            report.addAll(run(mode.trim(), connections, seconds));
+        }
+        System.out.println();
+        System.out.println("Connexions simultanées: " + connections + ", durée: " + seconds + " s");
+        report.forEach(System.out::println);
+        System.exit(0);
+    }
+
+    private static List<String> run(String mode, int connections, int seconds) throws Exception {
+        boolean virtual = mode.equals("virtual");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "spring.datasource.hikari.maximum-pool-size=20",
+                        "spring.jpa.properties.hibernate.generate_statistics=false",
+                        "server.tomcat.max-connections=" + (connections + 1000),
+                        "server.tomcat.accept-count=" + connections,
+                        "application.threads.pinning-monitor.enabled=" + virtual,
+                        "logging.level.root=WARN")
+                .run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            List<String> tokens = new ArrayList<>();
+            List<Long> postIds = new ArrayList<>();
+            seed(context, tokens, postIds);
+
+            Route feed = new Route("feed");
+            Route like = new Route("like");
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .connectTimeout(Duration.ofSeconds(30))
+                    .build();
+            String base = "http://localhost:" + port;
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+            CountDownLatch ready = new CountDownLatch(1);
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int c = 0; c < connections; c++) {
+                    int clientId = c;
+                    clients.submit(() -> {
+                        ready.await();
+                        String token = tokens.get(clientId % tokens.size());
+                        long postId = postIds.get(clientId % postIds.size());
+                        boolean toggle = false;
+                        while (System.nanoTime() < deadline) {
+                            HttpRequest request = toggle
+                                    ? HttpRequest.newBuilder(URI.create(base + "/api/posts/" + postId + "/like"))
+                                            .header("Authorization", "Bearer " + token)
+                                            .POST(HttpRequest.BodyPublishers.noBody()).build()
+                                    : HttpRequest.newBuilder(URI.create(base + "/api/posts?size=20")).GET().build();
+                            (toggle ? like : feed).call(client, request);
+                            toggle = !toggle;
+                        }
+                        return null;
+                    });
+                }
+                ready.countDown();
+            }
+
+            long pinned = virtual ? context.getBean(VirtualThreadPinningMonitor.class).getPinnedEvents() : 0;
+            return List.of(feed.summary(mode, seconds, pinned), like.summary(mode, seconds, pinned));
+        }
+    }
+
+    private static void seed(ConfigurableApplicationContext context, List<String> tokens, List<Long> postIds) {
+        UserRepository users = context.getBean(UserRepository.class);
+        PostRepository posts = context.getBean(PostRepository.class);
+        JwtService jwtService = context.getBean(JwtService.class);
+        for (int i = 0; i < USERS; i++) {
+            User user = users.save(User.builder()
+                    .username("load" + i)
+                    .email("load" + i + "@blog.ma")
+                    .password("x")
+                    .role(User.Role.READER)
+                    .enabled(true)
+                    .build());
+            tokens.add(jwtService.generateToken(user));
+            if (i < POSTS) {
+                postIds.add(posts.save(Post.builder()
+                        .title("Post de charge " + i)
+                        .content("Contenu")
+                        .resume("Résumé")
+                        .author(user)
+                        .build()).getId());
+            }
+        }
+    }
+
+    private static final class Route {
+        private final String name;
+        private final AtomicLong errors = new AtomicLong();
+        private final List<LatencyBuffer> samples = new ArrayList<>();
+        private final ThreadLocal<LatencyBuffer> buffers = ThreadLocal.withInitial(this::newBuffer);
+
+        Route(String name) {
+            this.name = name;
+        }
+
+        void call(HttpClient client, HttpRequest request) {
+            long start = System.nanoTime();
+            try {
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() >= 400) {
+                    errors.incrementAndGet();
+                }
+            } catch (Exception e) {
+                errors.incrementAndGet();
+            }
+            buffers.get().add(System.nanoTime() - start);
+        }
+
+        private synchronized LatencyBuffer newBuffer() {
+            LatencyBuffer buffer = new LatencyBuffer();
+            samples.add(buffer);
+            return buffer;
+        }
+
+        synchronized String summary(String mode, int seconds, long pinned) {
+            long[] all = samples.stream().flatMapToLong(buffer -> Arrays.stream(buffer.values, 0, buffer.size)).sorted().toArray();
+            return String.format("%-9s %-5s %9d %9.0f %9.1f %9.1f %8d %7d",
+                    mode, name, all.length, all.length / (double) seconds,
+                    percentile(all, 0.50), percentile(all, 0.99), errors.get(), pinned);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted.length == 0 ? 0 : sorted[(int) Math.min(sorted.length - 1, p * sorted.length)] / 1e6;
+        }
+    }
+
+    // Un tampon par thread client, fusionnés à la fin
+    private static final class LatencyBuffer {
+        private long[] values = new long[256];
+        private int size;
+
+        void add(long nanos) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nanos;
+        }
+    }
+}
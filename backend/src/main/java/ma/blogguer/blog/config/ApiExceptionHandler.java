@@ -0,0 +1,39 @@
+package ma.blogguer.blog.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import ma.blogguer.blog.dto.ErrorResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class ApiExceptionHandler {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiExceptionHandler.class);
+
+    // Paramètres invalides (curseur de pagination, etc.) : 400 au lieu de 500
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorResponse> handleBadRequest(IllegalArgumentException e, HttpServletRequest request) {
+        log.warn("Requête invalide sur {}: {}", request.getRequestURI(), e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorResponse.create(HttpStatus.BAD_REQUEST.value(), "Bad Request",
+                        e.getMessage(), request.getRequestURI()));
+    }
+
+    // Pool BCrypt saturé (vague de connexions) : le client réessaie plus tard
+    @ExceptionHandler(BoundedPasswordEncoder.SaturatedException.class)
+    public ResponseEntity<ErrorResponse> handleSaturated(BoundedPasswordEncoder.SaturatedException e,
+                                                         HttpServletRequest request) {
+        log.warn("Hachage saturé sur {}", request.getRequestURI());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(ErrorResponse.create(HttpStatus.SERVICE_UNAVAILABLE.value(), "Service Unavailable",
+                        e.getMessage(), request.getRequestURI()));
+    }
+}
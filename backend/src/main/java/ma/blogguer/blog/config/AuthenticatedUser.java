@@ -0,0 +1,68 @@
+package ma.blogguer.blog.config;
+
+import io.jsonwebtoken.Claims;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ma.blogguer.blog.entity.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Principal des requêtes authentifiées par JWT. Construit à partir des claims
+ * du token (mode sans état) ou de l'entité User, il évite de garder l'entité
+ * JPA dans le contexte de sécurité.
+ */
+@Getter
+@AllArgsConstructor
+public class AuthenticatedUser implements UserDetails {
+
+    private final Long id;
+    private final String email;
+    private final String displayUsername;
+    private final User.Role role;
+
+    public static AuthenticatedUser fromClaims(Claims claims) {
+        Number userId = claims.get("userId", Number.class);
+        return new AuthenticatedUser(
+                userId != null ? userId.longValue() : null,
+                claims.getSubject(),
+                claims.get("username", String.class),
+                parseRole(claims.get("role", String.class)));
+    }
+
+    public static AuthenticatedUser fromUser(User user) {
+        return new AuthenticatedUser(user.getId(), user.getEmail(), user.getDisplayUsername(), user.getRole());
+    }
+
+    // Le claim "role" vaut "ROLE_BLOGGER" (token d'accès) ou "BLOGGER" (refresh token)
+    static User.Role parseRole(String role) {
+        if (role == null) {
+            return null;
+        }
+        String name = role.startsWith("ROLE_") ? role.substring(5) : role;
+        try {
+            return User.Role.valueOf(name);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return email; // Spring Security utilise email comme username
+    }
+}
@@ -1,11 +1,20 @@
 package ma.blogguer.blog.config;
 
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.entity.User;
 import ma.blogguer.blog.service.JwtService;
+import ma.blogguer.blog.service.UserStateCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -16,13 +25,42 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     private final JwtService jwtService;
     private final UserDetailsService userDetailsService;
+    private final UserStateCache userStateCache;
+    private final MeterRegistry meterRegistry;
+
+    // true : aucune lecture de la table users pour authentifier une requête.
+    // false par défaut (compte relu à chaque requête) ; activé par le profil « virtual »
+    @Value("${application.security.jwt.stateless:false}")
+    private boolean stateless;
+
+    // Latence de l'authentification des requêtes portant un token, par résultat
+    private Timer authenticatedTimer;
+    private Timer rejectedTimer;
+    private Timer invalidTimer;
+
+    @PostConstruct
+    void init() {
+        authenticatedTimer = filterTimer("authenticated");
+        rejectedTimer = filterTimer("rejected");
+        invalidTimer = filterTimer("invalid");
+    }
+
+    private Timer filterTimer(String outcome) {
+        return Timer.builder("blog.security.jwt.filter")
+                .description("Authentification JWT d'une requête")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     @Override
     protected void doFilterInternal(
@@ -40,18 +78,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
-        
+        long start = System.nanoTime();
+        Timer outcome;
+
         try {
-            userEmail = jwtService.extractUsername(jwt);
+            // Un seul parsing (ou une lecture du cache) par requête
+            Claims claims = jwtService.extractAllClaims(jwt);
+            userEmail = claims.getSubject();
 
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                AuthenticatedUser principal = stateless
+                        ? authenticateFromClaims(claims)
+                        : authenticateFromDatabase(claims, userEmail);
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (principal != null) {
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails,
+                            principal,
                             null,
-                            userDetails.getAuthorities()
+                            principal.getAuthorities()
                     );
                     authToken.setDetails(
                             new WebAuthenticationDetailsSource().buildDetails(request)
@@ -59,12 +103,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                 }
             }
+            outcome = SecurityContextHolder.getContext().getAuthentication() != null
+                    ? authenticatedTimer
+                    : rejectedTimer;
         } catch (Exception e) {
-            // ✅ Si le token est invalide/expiré, on log l'erreur mais on continue
-            // Cela permet aux endpoints publics de fonctionner même avec un mauvais token
-            System.out.println("⚠️ JWT token invalide ou expiré: " + e.getMessage());
+            // Si le token est invalide/expiré, on continue sans authentification :
+            // les endpoints publics fonctionnent même avec un mauvais token
+            log.debug("JWT token invalide ou expiré: {}", e.getMessage());
+            outcome = invalidTimer;
         }
-        
+        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    // Mode sans état : principal construit à partir des claims vérifiés,
+    // le compte est seulement contrôlé (actif, rôle inchangé) via UserStateCache
+    private AuthenticatedUser authenticateFromClaims(Claims claims) {
+        AuthenticatedUser principal = AuthenticatedUser.fromClaims(claims);
+        if (principal.getId() == null || principal.getRole() == null) {
+            return null;
+        }
+        UserStateCache.UserState state = userStateCache.get(principal.getId()).orElse(null);
+        if (state == null || !state.isEnabled() || state.getRole() != principal.getRole()) {
+            return null;
+        }
+        return principal;
+    }
+
+    private AuthenticatedUser authenticateFromDatabase(Claims claims, String userEmail) {
+        UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (!userDetails.isEnabled() || !jwtService.isTokenValid(claims, userDetails)) {
+            return null;
+        }
+        return AuthenticatedUser.fromUser((User) userDetails);
+    }
+}
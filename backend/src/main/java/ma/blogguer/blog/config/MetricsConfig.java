@@ -0,0 +1,19 @@
+package ma.blogguer.blog.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+
+/**
+ * Métriques exposées sur /actuator/prometheus :
+ * - blog.service : timer par méthode de PostService, LikeService, CommentService,
+ *   AuthService et JwtService (@Timed sur la classe, tags class / method / exception)
+ * - spring.data.repository.invocations : timer par méthode de dépôt
+ * - hibernate.* : statistiques de la SessionFactory
+ * - blog.security.jwt.filter : latence de JwtAuthenticationFilter par résultat
+ * - cache.* : caches Caffeine (hits / misses / evictions), enregistrés par leurs propriétaires
+ * - hikaricp.* : état du pool de connexions
+ */
+@Configuration
+@PropertySource("classpath:metrics.properties")
+public class MetricsConfig {
+}
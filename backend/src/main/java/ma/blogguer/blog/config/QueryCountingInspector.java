@@ -0,0 +1,17 @@
+package ma.blogguer.blog.config;
+
+import ma.blogguer.blog.util.RequestMetrics;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Compte les requêtes SQL préparées par Hibernate pour la requête HTTP en cours.
+ * Les requêtes JdbcTemplate (compteurs, likes) ne passent pas par ici.
+ */
+public class QueryCountingInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestMetrics.countQuery();
+        return sql;
+    }
+}
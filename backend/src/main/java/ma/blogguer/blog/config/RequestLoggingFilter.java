@@ -0,0 +1,73 @@
+package ma.blogguer.blog.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import ma.blogguer.blog.util.RequestMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Une ligne de log par requête, au format clé=valeur :
+ * {@code method=GET path=/api/posts status=200 durationMs=12 rows=20 queries=2}.
+ * Seule une fraction des requêtes est journalisée (sample-rate), plus toutes les
+ * requêtes lentes et toutes les erreurs serveur. Aucun log par élément dans les services.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLoggingFilter.class);
+
+    @Value("${application.logging.requests.enabled:true}")
+    private boolean enabled;
+
+    @Value("${application.logging.requests.sample-rate:0.01}")
+    private double sampleRate;
+
+    @Value("${application.logging.requests.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        long start = System.nanoTime();
+        RequestMetrics metrics = RequestMetrics.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestMetrics.end();
+            long durationMs = (System.nanoTime() - start) / 1_000_000;
+            int status = response.getStatus();
+            if (log.isInfoEnabled() && shouldLog(durationMs, status)) {
+                log.info("method={} path={} status={} durationMs={} rows={} queries={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMs,
+                        metrics.getRows(), metrics.getQueries());
+            }
+        }
+    }
+
+    private boolean shouldLog(long durationMs, int status) {
+        return status >= 500
+                || durationMs >= slowThresholdMs
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -1,12 +1,25 @@
 package ma.blogguer.blog.controller;
 
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
 import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.service.PostImportService;
+import ma.blogguer.blog.service.UserLookupCache;
+import ma.blogguer.blog.service.UserStateCache;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -15,6 +28,10 @@ import java.util.List;
 public class AdminController {
 
     private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final UserStateCache userStateCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PostImportService postImportService;
 
     /**
      * Endpoint pour mettre à jour les avatars manquants
@@ -33,9 +50,45 @@ public class AdminController {
                     "&background=a855f7&color=fff&size=200";
             user.setAvatar(defaultAvatar);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId(), user.getEmail()));
             updated++;
         }
 
         return ResponseEntity.ok("Updated " + updated + " users with missing avatars");
     }
+
+    /**
+     * Statistiques des caches utilisateurs (hits, misses, taux de succès, taille)
+     */
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Map<String, Object>>> getCacheStats() {
+        Map<String, Map<String, Object>> stats = new LinkedHashMap<>();
+        stats.put("usersByEmail", toMap(userLookupCache.stats(), userLookupCache.size()));
+        stats.put("userStates", toMap(userStateCache.stats(), userStateCache.size()));
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * Import en masse de posts : un objet JSON par ligne (application/x-ndjson).
+     * Le corps est lu en flux ; la réponse, en NDJSON aussi, rend compte de la
+     * progression et des lignes rejetées au fil de l'import.
+     */
+    @PostMapping(value = "/posts/import", consumes = "application/x-ndjson")
+    public void importPosts(HttpServletRequest request, HttpServletResponse response,
+                            Authentication authentication) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        postImportService.importNdjson(request.getInputStream(), authentication.getName(),
+                response.getOutputStream());
+    }
+
+    private Map<String, Object> toMap(CacheStats cacheStats, long size) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("hits", cacheStats.hitCount());
+        values.put("misses", cacheStats.missCount());
+        values.put("hitRate", cacheStats.hitRate());
+        values.put("evictions", cacheStats.evictionCount());
+        values.put("size", size);
+        return values;
+    }
 }
@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.config.BoundedPasswordEncoder;
 import ma.blogguer.blog.dto.*;
 import ma.blogguer.blog.service.AuthService;
 import org.springframework.http.HttpStatus;
@@ -23,6 +24,8 @@ public class AuthController {
             @Valid @RequestBody RegisterRequest request) {
         try {
             return ResponseEntity.ok(authService.register(request));
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            throw e; // 503 + Retry-After (ApiExceptionHandler)
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -35,6 +38,8 @@ public class AuthController {
             @Valid @RequestBody AuthRequest request) {
         try {
             return ResponseEntity.ok(authService.authenticate(request));
+        } catch (BoundedPasswordEncoder.SaturatedException e) {
+            throw e; // 503 + Retry-After (ApiExceptionHandler)
         } catch (Exception e) {
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
@@ -3,11 +3,14 @@ package ma.blogguer.blog.controller;
 import lombok.RequiredArgsConstructor;
 import ma.blogguer.blog.dto.CommentRequest;
 import ma.blogguer.blog.dto.CommentResponse;
+import ma.blogguer.blog.dto.CursorPage;
 import ma.blogguer.blog.service.CommentService;
+import ma.blogguer.blog.service.ContentVersionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,6 +21,7 @@ import java.util.List;
 public class CommentController {
 
     private final CommentService commentService;
+    private final ContentVersionService contentVersionService;
 
     @PostMapping("/posts/{postId}/comments")
     public ResponseEntity<CommentResponse> addComment(
@@ -32,12 +36,39 @@ public class CommentController {
     @GetMapping("/posts/{postId}/comments")
     public ResponseEntity<List<CommentResponse>> getComments(
             @PathVariable Long postId,
-            Authentication authentication) {
-        System.out.println("📥 GET /api/posts/" + postId + "/comments - Authentication: " + (authentication != null ? "Présent" : "Absent"));
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            WebRequest webRequest) {
+        String email = authentication != null ? authentication.getName() : null;
+        ContentVersionService.Validator validator =
+                contentVersionService.comments(postId, "list", email, cursor, size);
+        if (webRequest.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            return null;
+        }
+        CursorPage<CommentResponse> page = commentService.getComments(postId, cursor, size, email);
+
+        ResponseEntity.BodyBuilder response = PostController.revalidated();
+        if (page.getNextCursor() != null) {
+            response.header(PostController.NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
+    @GetMapping("/posts/{postId}/comments/page")
+    public ResponseEntity<CursorPage<CommentResponse>> getCommentsPage(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication,
+            WebRequest webRequest) {
         String email = authentication != null ? authentication.getName() : null;
-        List<CommentResponse> comments = commentService.getCommentsForPost(postId, email);
-        System.out.println("📤 Retour de " + comments.size() + " commentaires");
-        return ResponseEntity.ok(comments);
+        ContentVersionService.Validator validator =
+                contentVersionService.comments(postId, "page", email, cursor, size);
+        if (webRequest.checkNotModified(validator.getEtag(), validator.getLastModified())) {
+            return null;
+        }
+        return PostController.revalidated().body(commentService.getComments(postId, cursor, size, email));
     }
 
     @DeleteMapping("/comments/{commentId}")
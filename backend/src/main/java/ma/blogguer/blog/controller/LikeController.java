@@ -1,6 +1,7 @@
 package ma.blogguer.blog.controller;
 
 import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.config.AuthenticatedUser;
 import ma.blogguer.blog.dto.LikeResponse;
 import ma.blogguer.blog.service.LikeService;
 import org.springframework.http.ResponseEntity;
@@ -23,8 +24,7 @@ public class LikeController {
     public ResponseEntity<Map<String, Object>> toggleLike(
             @PathVariable Long postId,
             Authentication authentication) {
-        String email = authentication.getName();
-        boolean liked = likeService.toggleLike(postId, email);
+        boolean liked = likeService.toggleLike(postId, currentUserId(authentication));
 
         Map<String, Object> response = new HashMap<>();
         response.put("liked", liked);
@@ -42,12 +42,16 @@ public class LikeController {
     public ResponseEntity<Map<String, Boolean>> hasLiked(
             @PathVariable Long postId,
             Authentication authentication) {
-        String email = authentication.getName();
-        boolean liked = likeService.hasUserLiked(postId, email);
+        boolean liked = likeService.hasUserLiked(postId, currentUserId(authentication));
 
         Map<String, Boolean> response = new HashMap<>();
         response.put("liked", liked);
 
         return ResponseEntity.ok(response);
     }
+
+    // L'identifiant vient du principal construit par JwtAuthenticationFilter : pas de recherche par email
+    private Long currentUserId(Authentication authentication) {
+        return ((AuthenticatedUser) authentication.getPrincipal()).getId();
+    }
 }
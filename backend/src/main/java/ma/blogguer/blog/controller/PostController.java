@@ -1,15 +1,26 @@
 package ma.blogguer.blog.controller;
 
 import lombok.RequiredArgsConstructor;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import ma.blogguer.blog.dto.CachedUser;
+import ma.blogguer.blog.dto.CategoryCount;
+import ma.blogguer.blog.dto.CursorPage;
 import ma.blogguer.blog.dto.PostRequest;
 import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.dto.TagCount;
+import ma.blogguer.blog.service.ContentVersionService;
+import ma.blogguer.blog.service.LiveCounterService;
 import ma.blogguer.blog.service.PostService;
+import ma.blogguer.blog.service.PublicFeedCache;
+import ma.blogguer.blog.service.UserLookupCache;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 
@@ -18,8 +29,13 @@ import java.util.List;
 @RequiredArgsConstructor
 public class PostController {
 
-    private static final Logger log = LoggerFactory.getLogger(PostController.class);
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final PostService postService;
+    private final ContentVersionService contentVersionService;
+    private final PublicFeedCache publicFeedCache;
+    private final LiveCounterService liveCounterService;
+    private final UserLookupCache userLookupCache;
 
     @PostMapping
     public ResponseEntity<PostResponse> createPost(
@@ -32,32 +48,135 @@ public class PostController {
     }
 
     @GetMapping
-    public ResponseEntity<List<PostResponse>> getAllPosts(Authentication authentication) {
-        log.info("📥 GET /api/posts - Authentication: {}", authentication != null ? "Présent" : "Absent");
-        
-        try {
-            // Cette méthode devrait accepter les requêtes non authentifiées
-            // authentication peut être null pour les utilisateurs non connectés
-            String email = authentication != null ? authentication.getName() : null;
-            log.info("👤 Email utilisateur: {}", email != null ? email : "Anonyme");
-            
-            List<PostResponse> posts = postService.getAllPosts(email);
-            log.info("✅ Retour de {} posts", posts.size());
-            
-            return ResponseEntity.ok(posts);
-        } catch (Exception e) {
-            log.error("❌ ERREUR dans getAllPosts endpoint: {}", e.getMessage(), e);
-            throw e;
+    public ResponseEntity<?> getAllPosts(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) String match,
+            Authentication authentication,
+            WebRequest webRequest) {
+        // Cette méthode devrait accepter les requêtes non authentifiées
+        // authentication peut être null pour les utilisateurs non connectés
+        String email = authentication != null ? authentication.getName() : null;
+        Long likes = likesVersion(email);
+
+        if (tags == null || tags.isEmpty()) {
+            // Fil public : JSON partagé en cache + likes de l'utilisateur
+            // Le client a déjà la page construite à la version courante : 304 sans la charger
+            ContentVersionService.Validator current = contentVersionService.feed(
+                    "list", email, likes, cursor, size, contentVersionService.feedVersion());
+            if (hasEtag(webRequest, current) && notModified(webRequest, current)) {
+                return null;
+            }
+            PublicFeedCache.SharedFeedPage shared = publicFeedCache.get(cursor, size);
+            if (notModified(webRequest,
+                    contentVersionService.feed("list", email, likes, cursor, size, shared.getVersion()))) {
+                return null;
+            }
+            return withNextCursor(revalidated(), shared.getNextCursor())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(publicFeedCache.renderList(shared, email));
+        }
+
+        // 304 décidé avant tout accès à la base
+        if (notModified(webRequest, contentVersionService.feed("list", email, likes, cursor, size, tags, match))) {
+            return null;
+        }
+        CursorPage<PostResponse> page = postService.getTagFeed(tags, match, cursor, size, email);
+        // Le curseur de la page suivante est transmis dans un en-tête pour garder le format liste
+        return withNextCursor(revalidated(), page.getNextCursor()).body(page.getItems());
+    }
+
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @RequestParam(name = "tag", required = false) List<String> tags,
+            @RequestParam(required = false) String match,
+            Authentication authentication,
+            WebRequest webRequest) {
+        String email = authentication != null ? authentication.getName() : null;
+        Long likes = likesVersion(email);
+
+        if (tags == null || tags.isEmpty()) {
+            // Le client a déjà la page construite à la version courante : 304 sans la charger
+            ContentVersionService.Validator current = contentVersionService.feed(
+                    "page", email, likes, cursor, size, contentVersionService.feedVersion());
+            if (hasEtag(webRequest, current) && notModified(webRequest, current)) {
+                return null;
+            }
+            PublicFeedCache.SharedFeedPage shared = publicFeedCache.get(cursor, size);
+            if (notModified(webRequest,
+                    contentVersionService.feed("page", email, likes, cursor, size, shared.getVersion()))) {
+                return null;
+            }
+            return revalidated()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(publicFeedCache.renderPage(shared, email));
+        }
+
+        // ?tag=a&tag=b&match=all|any : fil filtré par tags (any par défaut)
+        if (notModified(webRequest, contentVersionService.feed("page", email, likes, cursor, size, tags, match))) {
+            return null;
         }
+        return revalidated().body(postService.getTagFeed(tags, match, cursor, size, email));
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<CursorPage<PostResponse>> getCategoryFeed(
+            @PathVariable String category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        String email = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(postService.getCategoryFeed(category, cursor, size, email));
+    }
+
+    @GetMapping("/categories")
+    public ResponseEntity<List<CategoryCount>> getCategories() {
+        return ResponseEntity.ok(postService.getCategories());
+    }
+
+    @GetMapping("/tags/popular")
+    public ResponseEntity<List<TagCount>> getPopularTags(@RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(postService.getPopularTags(limit));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<PostResponse>> getTrending(
+            @RequestParam(required = false) Integer limit,
+            Authentication authentication) {
+        String email = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(postService.getTrending(limit, email));
+    }
+
+    // Flux SSE des compteurs : GET /api/posts/live?ids=1,2,3 (remplace le polling de /{id})
+    @GetMapping("/live")
+    public SseEmitter liveCounters(@RequestParam List<Long> ids) {
+        return liveCounterService.subscribe(ids);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<CursorPage<PostResponse>> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            Authentication authentication) {
+        String email = authentication != null ? authentication.getName() : null;
+        return ResponseEntity.ok(postService.searchPosts(query, cursor, size, email));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<PostResponse> getPostById(
             @PathVariable Long id,
-            Authentication authentication) {
+            Authentication authentication,
+            WebRequest webRequest) {
         // Cette méthode devrait accepter les requêtes non authentifiées
         String email = authentication != null ? authentication.getName() : null;
-        return ResponseEntity.ok(postService.getPostById(id, email));
+        if (notModified(webRequest, contentVersionService.post(id, email))) {
+            return null;
+        }
+        return revalidated().body(postService.getPostById(id, email));
     }
 
     @GetMapping("/my-posts")
@@ -66,4 +185,52 @@ public class PostController {
         String email = authentication.getName();
         return ResponseEntity.ok(postService.getMyPosts(email));
     }
-}
\ No newline at end of file
+
+    // La page partagée ne dit rien des likes de l'utilisateur : sa propre version entre dans l'ETag,
+    // un like ou unlike de sa part invalide ses pages même si le fil n'a pas d'autre version
+    private Long likesVersion(String email) {
+        if (email == null) {
+            return null;
+        }
+        return contentVersionService.likesVersion(userLookupCache.findByEmail(email).map(CachedUser::getId).orElse(null));
+    }
+
+    private static boolean notModified(WebRequest webRequest, ContentVersionService.Validator validator) {
+        return webRequest.checkNotModified(validator.getEtag(), validator.getLastModified());
+    }
+
+    // If-None-Match contient déjà cet ETag : on peut répondre 304 sans rien charger
+    private static boolean hasEtag(WebRequest webRequest, ContentVersionService.Validator validator) {
+        String[] values = webRequest.getHeaderValues(HttpHeaders.IF_NONE_MATCH);
+        if (values == null) {
+            return false;
+        }
+        String quoted = "\"" + validator.getEtag() + "\"";
+        for (String value : values) {
+            for (String tag : value.split(",")) {
+                tag = tag.trim();
+                if (tag.equals(quoted) || tag.equals("W/" + quoted)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static ResponseEntity.BodyBuilder withNextCursor(ResponseEntity.BodyBuilder response, String nextCursor) {
+        if (nextCursor != null) {
+            response.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return response;
+    }
+
+    /**
+     * Réponse gardée en cache par le navigateur mais revalidée à chaque appel
+     * (ETag / Last-Modified). Le contenu dépend de l'utilisateur connecté.
+     */
+    static ResponseEntity.BodyBuilder revalidated() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy(HttpHeaders.AUTHORIZATION);
+    }
+}
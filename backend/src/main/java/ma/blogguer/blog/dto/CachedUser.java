@@ -0,0 +1,47 @@
+package ma.blogguer.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ma.blogguer.blog.entity.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * Copie immuable des champs d'un utilisateur lus sur les chemins chauds,
+ * conservée dans UserLookupCache. Ne contient jamais le mot de passe.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedUser {
+    private final Long id;
+    private final String email;
+    private final String displayUsername;
+    private final User.Role role;
+    private final String avatar;
+    private final String bio;
+    private final boolean enabled;
+    private final LocalDateTime createdAt;
+    private final LocalDateTime updatedAt;
+
+    public static CachedUser fromUser(User user) {
+        return new CachedUser(
+                user.getId(),
+                user.getEmail(),
+                user.getDisplayUsername(),
+                user.getRole(),
+                user.getAvatar(),
+                user.getBio(),
+                user.isEnabled(),
+                user.getCreatedAt(),
+                user.getUpdatedAt());
+    }
+
+    public AuthorDTO toAuthorDTO() {
+        return AuthorDTO.builder()
+                .id(id)
+                .username(displayUsername)
+                .email(email)
+                .avatar(avatar)
+                .build();
+    }
+}
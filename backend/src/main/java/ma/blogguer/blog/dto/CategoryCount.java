@@ -0,0 +1,15 @@
+package ma.blogguer.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CategoryCount {
+    private String category;
+    private long count; // nombre de posts dans la catégorie
+}
@@ -0,0 +1,16 @@
+package ma.blogguer.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostCounters {
+    private Long postId;
+    private int likes;
+    private int commentsCount;
+}
@@ -0,0 +1,27 @@
+package ma.blogguer.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Une ligne du fichier NDJSON d'import de posts.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostImportLine {
+    private String title;
+    private String content;
+    private String resume;
+    private String category;
+    private String image;
+    private List<String> tags;
+    private String authorEmail; // absent : l'administrateur qui importe
+    private LocalDateTime createdAt; // absent : date de l'import
+}
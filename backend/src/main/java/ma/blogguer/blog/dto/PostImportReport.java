@@ -0,0 +1,26 @@
+package ma.blogguer.blog.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Une ligne de la réponse NDJSON d'import : "progress" après chaque lot,
+ * "error" pour une ligne rejetée, "done" à la fin.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PostImportReport {
+    private String type;
+    private Integer line; // numéro de la ligne rejetée (à partir de 1)
+    private String message;
+    private Integer lines;
+    private Integer imported;
+    private Integer failed;
+    private Long durationMs;
+}
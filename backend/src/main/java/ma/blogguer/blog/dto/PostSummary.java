@@ -0,0 +1,31 @@
+package ma.blogguer.blog.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection légère d'un post pour les listes : tout sauf le contenu complet.
+ * Construite directement par les requêtes JPQL de PostRepository.
+ */
+@Getter
+@AllArgsConstructor
+public class PostSummary {
+    private Long id;
+    private String title;
+    private String resume;
+    private String category;
+    private String image;
+    private int readTime;
+    private int likes;
+    private int commentsCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    // Auteur (peut être null si le post n'a pas d'auteur)
+    private Long authorId;
+    private String authorUsername;
+    private String authorEmail;
+    private String authorAvatar;
+}
@@ -35,4 +35,17 @@ public class UserProfile {
                 .updatedAt(user.getUpdatedAt())
                 .build();
     }
+
+    public static UserProfile fromCachedUser(CachedUser user) {
+        return UserProfile.builder()
+                .id(user.getId())
+                .username(user.getEmail()) // même valeur que fromUser : User.getUsername() renvoie l'email
+                .email(user.getEmail())
+                .role(user.getRole().name())
+                .avatar(user.getAvatar())
+                .bio(user.getBio())
+                .createdAt(user.getCreatedAt())
+                .updatedAt(user.getUpdatedAt())
+                .build();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ma.blogguer.blog.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Compteur matérialisé du nombre de posts par catégorie, incrémenté à chaque création
+@Entity
+@Table(name = "category_stats")
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class CategoryStat {
+    @Id
+    private String category;
+
+    @Column(nullable = false)
+    private long postCount;
+}
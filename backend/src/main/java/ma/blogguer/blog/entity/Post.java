@@ -2,11 +2,15 @@ package ma.blogguer.blog.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_posts_category_created_at_id", columnList = "category, created_at, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Setter
@@ -32,15 +36,19 @@ public class Post {
     private String image;
     private int readTime;
 
+    // Maintenu uniquement par LikeCounterService (UPDATE ... likes = likes + ?) :
+    // exclu des UPDATE Hibernate pour ne pas écraser les incréments avec une valeur périmée
     @Builder.Default
+    @Column(updatable = false)
     private int likes = 0;
 
     @Builder.Default
     private int commentsCount = 0;
 
     // Relations
-    @ManyToOne(fetch = FetchType.EAGER)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
+    @ToString.Exclude
     private User author;
 
     private LocalDateTime createdAt;
@@ -48,7 +56,12 @@ public class Post {
     private LocalDateTime updatedAt;
 
     // Simple helper for tags if needed later
-    @ElementCollection(fetch = FetchType.EAGER)
+    // Chargés à la demande, par lots, pour éviter un SELECT par post dans les listes
+    @ElementCollection(fetch = FetchType.LAZY)
+    @CollectionTable(name = "post_tags", joinColumns = @JoinColumn(name = "post_id"))
+    @Column(name = "tags")
+    @BatchSize(size = 50)
+    @ToString.Exclude
     private List<String> tags;
 
     @PrePersist
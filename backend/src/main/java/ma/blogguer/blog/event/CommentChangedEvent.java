@@ -0,0 +1,15 @@
+package ma.blogguer.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publié par CommentService à l'ajout ou à la suppression d'un commentaire.
+ */
+@Getter
+@AllArgsConstructor
+public class CommentChangedEvent {
+    private final Long postId;
+    private final Long commentId;
+    private final boolean added;
+}
@@ -0,0 +1,25 @@
+package ma.blogguer.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Publié par PostService à la création d'un post (l'import en masse les regroupe
+ * dans un PostsImportedEvent par lot). Contient une copie des champs
+ * utiles pour que les écouteurs n'aient pas à relire le post en base.
+ */
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final String title;
+    private final String resume;
+    private final String content;
+    private final String category;
+    private final List<String> tags;
+    private final LocalDateTime createdAt;
+}
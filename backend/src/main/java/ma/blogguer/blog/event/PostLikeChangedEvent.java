@@ -0,0 +1,15 @@
+package ma.blogguer.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publié par LikeService après un like ou un unlike effectivement enregistré.
+ */
+@Getter
+@AllArgsConstructor
+public class PostLikeChangedEvent {
+    private final Long postId;
+    private final Long userId;
+    private final boolean liked;
+}
@@ -0,0 +1,17 @@
+package ma.blogguer.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Publié par PostImportService une fois par lot importé, à la place d'un PostCreatedEvent
+ * par post : les écouteurs traitent le lot d'un coup (une invalidation de cache, une
+ * nouvelle version du fil, un UPDATE par catégorie) au lieu de le faire pour chaque post.
+ */
+@Getter
+@AllArgsConstructor
+public class PostsImportedEvent {
+    private final List<PostCreatedEvent> posts;
+}
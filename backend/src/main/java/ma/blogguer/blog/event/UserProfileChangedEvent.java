@@ -0,0 +1,16 @@
+package ma.blogguer.blog.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Publié quand le nom ou l'avatar d'un utilisateur change : ces informations
+ * sont recopiées dans les posts et commentaires renvoyés par l'API, et gardées
+ * par les caches d'utilisateurs (par id et par email).
+ */
+@Getter
+@AllArgsConstructor
+public class UserProfileChangedEvent {
+    private final Long userId;
+    private final String email;
+}
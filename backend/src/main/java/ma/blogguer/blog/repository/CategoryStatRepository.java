@@ -0,0 +1,13 @@
+package ma.blogguer.blog.repository;
+
+import ma.blogguer.blog.entity.CategoryStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface CategoryStatRepository extends JpaRepository<CategoryStat, String>, CategoryStatRepositoryCustom {
+
+    List<CategoryStat> findAllByOrderByPostCountDescCategoryAsc();
+}
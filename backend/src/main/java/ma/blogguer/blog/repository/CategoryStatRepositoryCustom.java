@@ -0,0 +1,24 @@
+package ma.blogguer.blog.repository;
+
+/**
+ * Mises à jour atomiques des compteurs de catégories, hors contexte JPA.
+ */
+public interface CategoryStatRepositoryCustom {
+
+    /**
+     * Ajoute un post à la catégorie, en créant la ligne si besoin.
+     */
+    void increment(String category);
+
+    /**
+     * Ajoute delta posts à la catégorie, en créant la ligne si besoin.
+     */
+    void add(String category, int delta);
+
+    /**
+     * Remplit les compteurs à partir de la table posts (COUNT(*) unique).
+     *
+     * @return le nombre de catégories créées
+     */
+    int backfill();
+}
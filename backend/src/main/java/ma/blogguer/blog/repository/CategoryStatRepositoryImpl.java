@@ -0,0 +1,50 @@
+package ma.blogguer.blog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@RequiredArgsConstructor
+public class CategoryStatRepositoryImpl implements CategoryStatRepositoryCustom {
+
+    // Un seul upsert : pas d'INSERT en échec qui, sous PostgreSQL, annulerait la transaction appelante
+    private static final String UPSERT_POSTGRESQL = "INSERT INTO category_stats (category, post_count) VALUES (?, ?) " +
+            "ON CONFLICT (category) DO UPDATE SET post_count = category_stats.post_count + EXCLUDED.post_count";
+    private static final String UPSERT_MYSQL = "INSERT INTO category_stats (category, post_count) VALUES (?, ?) " +
+            "ON DUPLICATE KEY UPDATE post_count = post_count + ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgresql;
+
+    @Override
+    public void increment(String category) {
+        add(category, 1);
+    }
+
+    @Override
+    public void add(String category, int delta) {
+        if (isPostgresql()) {
+            jdbcTemplate.update(UPSERT_POSTGRESQL, category, delta);
+        } else {
+            jdbcTemplate.update(UPSERT_MYSQL, category, delta, delta);
+        }
+    }
+
+    @Override
+    public int backfill() {
+        return jdbcTemplate.update("INSERT INTO category_stats (category, post_count) " +
+                "SELECT category, COUNT(*) FROM posts WHERE category IS NOT NULL GROUP BY category");
+    }
+
+    // MySQL et H2 (MODE=MySQL) acceptent ON DUPLICATE KEY UPDATE ; PostgreSQL veut ON CONFLICT
+    private boolean isPostgresql() {
+        Boolean result = postgresql;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgresql = result;
+        }
+        return result;
+    }
+}
@@ -1,14 +1,31 @@
 package ma.blogguer.blog.repository;
 
 import ma.blogguer.blog.entity.Comment;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByPostIdOrderByCreatedAtDesc(Long postId);
 
+    // Pagination par clé (createdAt, id) : s'appuie sur idx_comments_post_created_at_id
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user " +
+            "WHERE c.post.id = :postId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPage(@Param("postId") Long postId, Limit limit);
+
+    @Query("SELECT c FROM Comment c JOIN FETCH c.user " +
+            "WHERE c.post.id = :postId " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<Comment> findPageAfter(@Param("postId") Long postId, @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id, Limit limit);
+
     long countByPostId(Long postId);
 }
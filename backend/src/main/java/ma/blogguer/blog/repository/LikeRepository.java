@@ -1,16 +1,22 @@
 package ma.blogguer.blog.repository;
 
 import ma.blogguer.blog.entity.Like;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface LikeRepository extends JpaRepository<Like, Long> {
+public interface LikeRepository extends JpaRepository<Like, Long>, LikeRepositoryCustom {
     Optional<Like> findByUserIdAndPostId(Long userId, Long postId);
 
+    // Utilisateurs chargés dans la même requête : lisibles hors transaction (open-in-view désactivé)
+    @EntityGraph(attributePaths = "user")
     List<Like> findByPostIdOrderByCreatedAtDesc(Long postId);
 
     long countByPostId(Long postId);
@@ -18,4 +24,8 @@ public interface LikeRepository extends JpaRepository<Like, Long> {
     boolean existsByUserIdAndPostId(Long userId, Long postId);
 
     void deleteByUserIdAndPostId(Long userId, Long postId);
+
+    // Posts likés par un utilisateur parmi une page : une seule requête IN (...)
+    @Query("SELECT l.post.id FROM Like l WHERE l.user.id = :userId AND l.post.id IN :postIds")
+    List<Long> findLikedPostIds(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
 }
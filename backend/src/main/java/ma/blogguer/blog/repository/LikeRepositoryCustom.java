@@ -0,0 +1,19 @@
+package ma.blogguer.blog.repository;
+
+/**
+ * Écritures atomiques d'un like en une instruction chacune, hors contexte JPA.
+ */
+public interface LikeRepositoryCustom {
+
+    /**
+     * @return true si un like existait et a été supprimé
+     */
+    boolean deleteLike(Long userId, Long postId);
+
+    /**
+     * Insère le like en s'appuyant sur la contrainte unique (user_id, post_id).
+     *
+     * @return false si le like existait déjà (clic concurrent)
+     */
+    boolean insertLike(Long userId, Long postId);
+}
@@ -0,0 +1,29 @@
+package ma.blogguer.blog.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@RequiredArgsConstructor
+public class LikeRepositoryImpl implements LikeRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public boolean deleteLike(Long userId, Long postId) {
+        return jdbcTemplate.update("DELETE FROM likes WHERE user_id = ? AND post_id = ?", userId, postId) > 0;
+    }
+
+    @Override
+    public boolean insertLike(Long userId, Long postId) {
+        try {
+            return jdbcTemplate.update("INSERT INTO likes (user_id, post_id, created_at) VALUES (?, ?, ?)",
+                    userId, postId, Timestamp.valueOf(LocalDateTime.now())) > 0;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
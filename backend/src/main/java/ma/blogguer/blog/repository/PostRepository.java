@@ -1,18 +1,83 @@
 package ma.blogguer.blog.repository;
 
+import ma.blogguer.blog.dto.PostSummary;
 import ma.blogguer.blog.entity.Post;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post, Long> {
-    List<Post> findByOrderByCreatedAtDesc();
+public interface PostRepository extends JpaRepository<Post, Long>, PostRepositoryCustom {
 
+    String SUMMARY_SELECT = "SELECT new ma.blogguer.blog.dto.PostSummary(" +
+            "p.id, p.title, p.resume, p.category, p.image, p.readTime, p.likes, p.commentsCount, " +
+            "p.createdAt, p.updatedAt, a.id, a.username, a.email, a.avatar) " +
+            "FROM Post p LEFT JOIN p.author a ";
+
+    // Pagination par clé (createdAt, id) : s'appuie sur idx_posts_created_at_id
+    @Query(SUMMARY_SELECT + "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeed(Limit limit);
+
+    @Query(SUMMARY_SELECT +
+            "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findFeedAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    // Fil d'une catégorie : s'appuie sur idx_posts_category_created_at_id
+    @Query(SUMMARY_SELECT + "WHERE p.category = :category ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findCategoryFeed(@Param("category") String category, Limit limit);
+
+    @Query(SUMMARY_SELECT +
+            "WHERE p.category = :category AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findCategoryFeedAfter(@Param("category") String category,
+                                            @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                            Limit limit);
+
+    @Query(SUMMARY_SELECT + "WHERE a.id = :authorId ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostSummary> findSummariesByAuthorId(@Param("authorId") Long authorId);
+
+    // Lecture par lots pour la reconstruction de l'index de recherche : [id, title, resume, content]
+    @Query("SELECT p.id, p.title, p.resume, p.content FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Object[]> findSearchableAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("SELECT p.id FROM Post p WHERE p.id > :afterId ORDER BY p.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Résumés d'un ensemble de posts (résultats de recherche), dans un ordre quelconque
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<PostSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Compteurs d'un lot de posts (flux temps réel) : lignes [id, likes, commentsCount]
+    @Query("SELECT p.id, p.likes, p.commentsCount FROM Post p WHERE p.id IN :ids")
+    List<Object[]> findCountersByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Tags d'un lot de posts en une seule requête : lignes [postId, tag]
+    @Query("SELECT p.id, t FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<Object[]> findTagsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Idem avec la date de création, pour ranger les tags dans l'ordre du fil : [postId, createdAt, tag]
+    @Query("SELECT p.id, p.createdAt, t FROM Post p JOIN p.tags t WHERE p.id IN :postIds")
+    List<Object[]> findDatedTagsByPostIds(@Param("postIds") Collection<Long> postIds);
+
+    // Détail d'un post : auteur et tags en une seule requête
+    @EntityGraph(attributePaths = {"author", "tags"})
+    Optional<Post> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = {"author"})
     List<Post> findByAuthorId(Long userId);
 
+    @EntityGraph(attributePaths = {"author"})
     List<Post> findByTitle(String title);
 
+    @EntityGraph(attributePaths = {"author"})
     List<Post> findByCategory(String category);
 }
@@ -0,0 +1,35 @@
+package ma.blogguer.blog.repository;
+
+import ma.blogguer.blog.entity.Post;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Lectures en flux pour les index en mémoire et écritures en masse, hors contexte JPA.
+ */
+public interface PostRepositoryCustom {
+
+    enum Activity { POST, LIKE, COMMENT }
+
+    interface ActivityHandler {
+        void onActivity(long postId, Activity activity, long atMillis);
+
+        // Requête exécutée, avant la première ligne : ce qui sera validé ensuite n'est pas parcouru
+        default void onSnapshot() {
+        }
+    }
+
+    /**
+     * Parcourt les créations de posts, likes et commentaires datés d'après since,
+     * ligne à ligne, sans charger le résultat en mémoire (curseur côté serveur, y compris sous MySQL).
+     */
+    void forEachActivitySince(LocalDateTime since, ActivityHandler handler);
+
+    /**
+     * Insère les posts et leurs tags par lots JDBC (l'auteur n'est lu que pour son id).
+     * Les ids générés sont reportés dans les entités, dans l'ordre de la liste ;
+     * IllegalStateException si le pilote n'en renvoie pas un par post.
+     */
+    void insertAll(List<Post> posts);
+}
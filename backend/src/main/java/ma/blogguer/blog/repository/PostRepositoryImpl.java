@@ -0,0 +1,127 @@
+package ma.blogguer.blog.repository;
+
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.entity.Post;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class PostRepositoryImpl implements PostRepositoryCustom {
+
+    private static final String ACTIVITY_SQL =
+            "SELECT id, 0, created_at FROM posts WHERE created_at >= ? " +
+            "UNION ALL SELECT post_id, 1, created_at FROM likes WHERE created_at >= ? " +
+            "UNION ALL SELECT post_id, 2, created_at FROM comments WHERE created_at >= ?";
+
+    private static final Activity[] ACTIVITIES = Activity.values();
+
+    private static final String INSERT_POST =
+            "INSERT INTO posts (title, content, resume, category, image, read_time, likes, comments_count, " +
+            "user_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, 0, 0, ?, ?, ?)";
+    private static final String INSERT_TAG = "INSERT INTO post_tags (post_id, tags) VALUES (?, ?)";
+
+    private static final int ACTIVITY_FETCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean mysql;
+
+    @Override
+    public void forEachActivitySince(LocalDateTime since, ActivityHandler handler) {
+        Timestamp from = Timestamp.valueOf(since);
+        ResultSetExtractor<Void> rows = rs -> {
+            handler.onSnapshot();
+            while (rs.next()) {
+                handler.onActivity(rs.getLong(1), ACTIVITIES[rs.getInt(2)], rs.getTimestamp(3).getTime());
+            }
+            return null;
+        };
+        // Connector/J ignore un fetchSize positif (sauf useCursorFetch=true) : MIN_VALUE active le flux ligne à ligne
+        int fetchSize = isMysql() ? Integer.MIN_VALUE : ACTIVITY_FETCH_SIZE;
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ACTIVITY_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, from);
+            statement.setTimestamp(2, from);
+            statement.setTimestamp(3, from);
+            return statement;
+        }, rows);
+    }
+
+    // Un seul executeBatch pour les posts (clés générées comprises), un second pour les tags
+    @Override
+    public void insertAll(List<Post> posts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_POST, new String[] { "id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Post post = posts.get(i);
+                        statement.setString(1, post.getTitle());
+                        statement.setString(2, post.getContent());
+                        statement.setString(3, post.getResume());
+                        statement.setString(4, post.getCategory());
+                        statement.setString(5, post.getImage());
+                        statement.setInt(6, post.getReadTime());
+                        statement.setLong(7, post.getAuthor().getId());
+                        statement.setTimestamp(8, Timestamp.valueOf(post.getCreatedAt()));
+                        statement.setTimestamp(9, Timestamp.valueOf(post.getUpdatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return posts.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        if (generated.size() != posts.size()) {
+            throw new IllegalStateException("Ids générés incomplets: " + generated.size() + " pour " + posts.size() + " posts");
+        }
+        List<Object[]> tags = new ArrayList<>();
+        for (int i = 0; i < posts.size(); i++) {
+            Post post = posts.get(i);
+            post.setId(generatedId(generated.get(i)));
+            if (post.getTags() != null) {
+                for (String tag : post.getTags()) {
+                    tags.add(new Object[] { post.getId(), tag });
+                }
+            }
+        }
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG, tags);
+        }
+    }
+
+    // Nom de la clé selon le pilote : ID (H2), id (PostgreSQL), GENERATED_KEY (MySQL)
+    private static Long generatedId(Map<String, Object> key) {
+        Object id = key.containsKey("id") ? key.get("id") : key.values().iterator().next();
+        return ((Number) id).longValue();
+    }
+
+    // H2 (MODE=MySQL) se déclare H2 : seul le vrai pilote MySQL a besoin du mode flux
+    private boolean isMysql() {
+        Boolean result = mysql;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            mysql = result;
+        }
+        return result;
+    }
+}
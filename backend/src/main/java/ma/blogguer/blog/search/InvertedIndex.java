@@ -0,0 +1,256 @@
+package ma.blogguer.blog.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire avec classement BM25.
+ *
+ * Chaque document reçoit un numéro interne croissant ; les listes de postings
+ * sont deux tableaux parallèles (numéro, fréquence pondérée). Le dictionnaire
+ * est trié pour résoudre les requêtes par préfixe (« spri* »). Les lectures
+ * se font sous verrou partagé, les ajouts sous verrou exclusif.
+ */
+public class InvertedIndex {
+
+    // Poids des champs : un terme du titre compte trois fois un terme du contenu
+    static final int TITLE_WEIGHT = 3;
+    static final int TAG_WEIGHT = 2;
+    static final int RESUME_WEIGHT = 2;
+    static final int CONTENT_WEIGHT = 1;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+
+    private final int maxPrefixExpansions;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final Map<Long, Integer> ordinalByPostId = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+    private long[] postIds = new long[1024];
+    private int[] docLengths = new int[1024];
+    private int docCount;
+    private int liveDocs;
+    private long totalLength;
+
+    public InvertedIndex(int maxPrefixExpansions) {
+        this.maxPrefixExpansions = maxPrefixExpansions;
+    }
+
+    /**
+     * Indexe un post ; s'il était déjà présent, l'ancienne version est remplacée.
+     */
+    public void index(long postId, String title, String resume, String content, List<String> tags) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = accumulate(frequencies, title, TITLE_WEIGHT)
+                + accumulate(frequencies, resume, RESUME_WEIGHT)
+                + accumulate(frequencies, content, CONTENT_WEIGHT);
+        if (tags != null) {
+            for (String tag : tags) {
+                length += accumulate(frequencies, tag, TAG_WEIGHT);
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(postId);
+            int ordinal = docCount++;
+            if (ordinal == postIds.length) {
+                postIds = Arrays.copyOf(postIds, ordinal * 2);
+                docLengths = Arrays.copyOf(docLengths, ordinal * 2);
+            }
+            postIds[ordinal] = postId;
+            docLengths[ordinal] = length;
+            ordinalByPostId.put(postId, ordinal);
+            liveDocs++;
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                dictionary.computeIfAbsent(entry.getKey(), term -> new Postings()).add(ordinal, entry.getValue());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long postId) {
+        lock.writeLock().lock();
+        try {
+            return removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Suppression logique : les postings restent, le document est ignoré au classement
+    private boolean removeLocked(long postId) {
+        Integer ordinal = ordinalByPostId.remove(postId);
+        if (ordinal == null) {
+            return false;
+        }
+        deleted.set(ordinal);
+        liveDocs--;
+        totalLength -= docLengths[ordinal];
+        return true;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Recherche « OU » classée par BM25. Un terme suivi de {@code *} est un préfixe.
+     *
+     * @return les identifiants de posts de la tranche [offset, offset + limit)
+     */
+    public SearchResult search(String query, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Postings> matches = resolveTerms(query);
+            if (matches.isEmpty() || liveDocs == 0) {
+                return new SearchResult(List.of(), false);
+            }
+
+            float[] scores = new float[docCount];
+            float avgLength = Math.max(1f, (float) totalLength / liveDocs);
+            for (Postings postings : matches) {
+                score(postings, scores, avgLength);
+            }
+            return topHits(scores, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Postings> resolveTerms(String query) {
+        List<Postings> matches = new ArrayList<>();
+        if (query == null) {
+            return matches;
+        }
+        for (String raw : query.trim().split("\\s+")) {
+            if (raw.endsWith("*")) {
+                String prefix = TextAnalyzer.normalizePrefix(raw.substring(0, raw.length() - 1));
+                if (prefix.length() >= TextAnalyzer.MIN_TERM_LENGTH) {
+                    expandPrefix(prefix, matches);
+                }
+                continue;
+            }
+            for (String term : TextAnalyzer.tokenize(raw)) {
+                Postings postings = dictionary.get(term);
+                if (postings != null) {
+                    matches.add(postings);
+                }
+            }
+        }
+        return matches;
+    }
+
+    private void expandPrefix(String prefix, List<Postings> matches) {
+        int expanded = 0;
+        for (Map.Entry<String, Postings> entry : dictionary.tailMap(prefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(prefix) || expanded++ >= maxPrefixExpansions) {
+                break;
+            }
+            matches.add(entry.getValue());
+        }
+    }
+
+    private void score(Postings postings, float[] scores, float avgLength) {
+        // df inclut les documents supprimés logiquement : écart négligeable pour le classement
+        float idf = (float) Math.log(1 + (liveDocs - postings.size + 0.5) / (postings.size + 0.5));
+        if (idf <= 0) {
+            idf = 0.01f;
+        }
+        // norm = K1 * (1 - B + B * longueur / moyenne), développé pour éviter une division par posting
+        float normBase = K1 * (1 - B);
+        float normPerToken = K1 * B / avgLength;
+        float numerator = idf * (K1 + 1);
+        int[] docs = postings.docs;
+        char[] tfs = postings.frequencies;
+        for (int i = 0; i < postings.size; i++) {
+            int doc = docs[i];
+            float tf = tfs[i];
+            scores[doc] += numerator * tf / (tf + normBase + normPerToken * docLengths[doc]);
+        }
+    }
+
+    private SearchResult topHits(float[] scores, int offset, int limit) {
+        int wanted = offset + limit + 1; // un de plus pour savoir s'il reste une page
+        // Tas minimal : à score égal, le post le plus récent (numéro le plus grand) passe devant
+        PriorityQueue<Integer> heap = new PriorityQueue<>(wanted, (a, b) -> {
+            int cmp = Float.compare(scores[a], scores[b]);
+            return cmp != 0 ? cmp : Integer.compare(a, b);
+        });
+        for (int doc = 0; doc < scores.length; doc++) {
+            if (scores[doc] <= 0 || deleted.get(doc)) {
+                continue;
+            }
+            if (heap.size() < wanted) {
+                heap.add(doc);
+            } else {
+                int weakest = heap.peek();
+                if (scores[doc] > scores[weakest] || (scores[doc] == scores[weakest] && doc > weakest)) {
+                    heap.poll();
+                    heap.add(doc);
+                }
+            }
+        }
+
+        int[] ranked = new int[heap.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            ranked[i] = heap.poll();
+        }
+        List<Long> ids = new ArrayList<>(limit);
+        for (int i = offset; i < Math.min(ranked.length, offset + limit); i++) {
+            ids.add(postIds[ranked[i]]);
+        }
+        return new SearchResult(ids, ranked.length > offset + limit);
+    }
+
+    private static int accumulate(Map<String, Integer> frequencies, String text, int weight) {
+        List<String> terms = TextAnalyzer.tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private static final class Postings {
+        private int[] docs = new int[2];
+        private char[] frequencies = new char[2]; // fréquence pondérée, plafonnée à 65535
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = (char) Math.min(frequency, Character.MAX_VALUE);
+            size++;
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class SearchResult {
+        private final List<Long> postIds;
+        private final boolean hasMore;
+    }
+}
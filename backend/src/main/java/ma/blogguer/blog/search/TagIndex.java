@@ -0,0 +1,209 @@
+package ma.blogguer.blog.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ma.blogguer.blog.util.SortedLongPairArray;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index tag -> posts. Chaque liste est triée par (date de création, id), comme le fil
+ * principal ; les pages se lisent du plus récent au plus ancien. Un post importé avec sa
+ * date d'origine se range donc à cette date, et non en tête malgré son id plus grand.
+ */
+public class TagIndex {
+
+    public enum Match { ALL, ANY }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, SortedLongPairArray> postingsByTag = new HashMap<>();
+
+    public static String normalize(String tag) {
+        return tag == null ? "" : tag.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // Date de création en microsecondes : la précision des colonnes DATETIME(6)
+    public static long postedAt(LocalDateTime createdAt) {
+        return createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + createdAt.getNano() / 1_000;
+    }
+
+    public static LocalDateTime toDateTime(long postedAt) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(postedAt, 1_000_000),
+                (int) Math.floorMod(postedAt, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    public void add(long postId, long postedAt, Collection<String> tags) {
+        if (tags == null || tags.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (String tag : tags) {
+                String key = normalize(tag);
+                if (!key.isEmpty()) {
+                    postingsByTag.computeIfAbsent(key, k -> new SortedLongPairArray()).add(postedAt, postId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long postId, long postedAt, Collection<String> tags) {
+        if (tags == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (String tag : tags) {
+                String key = normalize(tag);
+                SortedLongPairArray postings = postingsByTag.get(key);
+                if (postings != null && postings.remove(postedAt, postId) && postings.isEmpty()) {
+                    postingsByTag.remove(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param before ne renvoie que les posts strictement antérieurs (curseur), ou null
+     * @param limit  nombre maximum de posts renvoyés, du plus récent au plus ancien
+     */
+    public List<Posting> find(Collection<String> tags, Match match, Posting before, int limit) {
+        Set<String> keys = new LinkedHashSet<>();
+        for (String tag : tags) {
+            String key = normalize(tag);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        Posting upperBound = before != null ? before : new Posting(Long.MAX_VALUE, Long.MAX_VALUE);
+
+        lock.readLock().lock();
+        try {
+            List<SortedLongPairArray> lists = new ArrayList<>(keys.size());
+            for (String key : keys) {
+                SortedLongPairArray postings = postingsByTag.get(key);
+                if (postings == null) {
+                    if (match == Match.ALL) {
+                        return new ArrayList<>();
+                    }
+                } else {
+                    lists.add(postings);
+                }
+            }
+            if (lists.isEmpty()) {
+                return new ArrayList<>();
+            }
+            return match == Match.ALL
+                    ? intersect(lists, upperBound, limit)
+                    : union(lists, upperBound, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String tag) {
+        lock.readLock().lock();
+        try {
+            SortedLongPairArray postings = postingsByTag.get(normalize(tag));
+            return postings == null ? 0 : postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return les {@code limit} tags les plus utilisés avec leur nombre de posts
+     */
+    public List<Map.Entry<String, Integer>> popular(int limit) {
+        lock.readLock().lock();
+        try {
+            List<Map.Entry<String, Integer>> counts = new ArrayList<>(postingsByTag.size());
+            postingsByTag.forEach((tag, postings) -> counts.add(Map.entry(tag, postings.size())));
+            counts.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                    .thenComparing(Map.Entry.comparingByKey()));
+            return counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ET : on parcourt la plus courte liste et on vérifie la présence dans les autres
+    private static List<Posting> intersect(List<SortedLongPairArray> lists, Posting upperBound, int limit) {
+        lists.sort(Comparator.comparingInt(SortedLongPairArray::size));
+        SortedLongPairArray shortest = lists.get(0);
+        List<Posting> postings = new ArrayList<>(limit);
+        for (int i = shortest.lastIndexBefore(upperBound.getPostedAt(), upperBound.getPostId());
+             i >= 0 && postings.size() < limit; i--) {
+            long postedAt = shortest.keyAt(i);
+            long id = shortest.valueAt(i);
+            boolean inAll = true;
+            for (int l = 1; l < lists.size() && inAll; l++) {
+                inAll = lists.get(l).contains(postedAt, id);
+            }
+            if (inAll) {
+                postings.add(new Posting(postedAt, id));
+            }
+        }
+        return postings;
+    }
+
+    // OU : fusion décroissante des listes, un curseur par liste
+    private static List<Posting> union(List<SortedLongPairArray> lists, Posting upperBound, int limit) {
+        int[] positions = new int[lists.size()];
+        for (int l = 0; l < lists.size(); l++) {
+            positions[l] = lists.get(l).lastIndexBefore(upperBound.getPostedAt(), upperBound.getPostId());
+        }
+        List<Posting> postings = new ArrayList<>(limit);
+        while (postings.size() < limit) {
+            int newest = -1;
+            for (int l = 0; l < lists.size(); l++) {
+                if (positions[l] >= 0 && (newest < 0 || compare(lists.get(l), positions[l],
+                        lists.get(newest).keyAt(positions[newest]), lists.get(newest).valueAt(positions[newest])) > 0)) {
+                    newest = l;
+                }
+            }
+            if (newest < 0) {
+                break;
+            }
+            long postedAt = lists.get(newest).keyAt(positions[newest]);
+            long id = lists.get(newest).valueAt(positions[newest]);
+            postings.add(new Posting(postedAt, id));
+            for (int l = 0; l < lists.size(); l++) {
+                if (positions[l] >= 0 && compare(lists.get(l), positions[l], postedAt, id) == 0) {
+                    positions[l]--;
+                }
+            }
+        }
+        return postings;
+    }
+
+    private static int compare(SortedLongPairArray list, int index, long postedAt, long id) {
+        int cmp = Long.compare(list.keyAt(index), postedAt);
+        return cmp != 0 ? cmp : Long.compare(list.valueAt(index), id);
+    }
+
+    /**
+     * Entrée d'une liste : date de création (voir {@link #postedAt(LocalDateTime)}) et id du post.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Posting {
+        private final long postedAt;
+        private final long postId;
+    }
+}
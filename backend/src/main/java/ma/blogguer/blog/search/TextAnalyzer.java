@@ -0,0 +1,75 @@
+package ma.blogguer.blog.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Découpe un texte en termes indexables : minuscules, accents retirés,
+ * séparation sur tout ce qui n'est ni lettre ni chiffre, mots vides ignorés.
+ * Le même traitement est appliqué aux documents et aux requêtes.
+ */
+public final class TextAnalyzer {
+
+    public static final int MIN_TERM_LENGTH = 2;
+    public static final int MAX_TERM_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            // français
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "en", "et", "il", "la", "le", "les",
+            "leur", "mais", "ne", "nous", "on", "ou", "par", "pas", "pour", "qu", "que", "qui", "sa", "se",
+            "ses", "son", "sur", "un", "une", "vous",
+            // anglais
+            "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "or",
+            "that", "the", "this", "to", "was", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Normalise un préfixe de requête (« dév* ») sans le filtrer par les mots vides.
+     */
+    public static String normalizePrefix(String prefix) {
+        return fold(prefix).replaceAll("[^\\p{L}\\p{N}]", "");
+    }
+
+    private static void addTerm(List<String> terms, String term) {
+        if (term.length() < MIN_TERM_LENGTH || STOP_WORDS.contains(term)) {
+            return;
+        }
+        terms.add(term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term);
+    }
+
+    private static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,150 @@
+package ma.blogguer.blog.search;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Classement « tendance » en mémoire : chaque interaction (création, like, commentaire)
+ * apporte un poids qui décroît de moitié toutes les halfLifeMillis.
+ *
+ * Toutes les contributions décroissant au même rythme, on stocke des scores « ancrés »
+ * sur une origine commune : poids * 2^((t - origine) / demi-vie). L'ordre de ces scores
+ * est celui des scores décrus à n'importe quel instant, rien n'est recalculé avec le temps.
+ * L'origine est avancée quand l'exposant devient grand, pour rester loin de l'overflow.
+ *
+ * Les posts suivis sont limités à maxTracked (les moins bien classés sont oubliés) et
+ * les maxTop premiers sont publiés dans un tableau immuable : top() ne prend aucun verrou.
+ */
+public class TrendingIndex {
+
+    // Au-delà de 2^256 on ré-ancre ; un double monte jusqu'à 2^1023
+    private static final double MAX_EXPONENT = 256;
+
+    private final double halfLifeMillis;
+    private final int maxTop;
+    private final int maxTracked;
+
+    private final Map<Long, Ranked> byPost = new HashMap<>();
+    private final TreeSet<Ranked> ranking = new TreeSet<>();
+    private long originMillis;
+
+    private volatile long[] top = new long[0];
+    // Score du dernier post publié dans top (si top est plein) : en dessous, top ne change pas
+    private double topThreshold = Double.NEGATIVE_INFINITY;
+
+    public TrendingIndex(long halfLifeMillis, int maxTop, int maxTracked, long originMillis) {
+        if (halfLifeMillis <= 0 || maxTop <= 0 || maxTracked < maxTop) {
+            throw new IllegalArgumentException("Paramètres de classement invalides");
+        }
+        this.halfLifeMillis = halfLifeMillis;
+        this.maxTop = maxTop;
+        this.maxTracked = maxTracked;
+        this.originMillis = originMillis;
+    }
+
+    /**
+     * Ajoute (ou retire, si weight est négatif) une contribution datée de atMillis.
+     * Un retrait (unlike, commentaire supprimé) compte au poids du moment : un like
+     * retiré peu après avoir été donné s'annule, le score ne descend jamais sous zéro.
+     */
+    public synchronized void add(long postId, double weight, long atMillis) {
+        double exponent = (atMillis - originMillis) / halfLifeMillis;
+        if (exponent > MAX_EXPONENT) {
+            reanchor(atMillis);
+            exponent = 0;
+        }
+        double delta = weight * Math.pow(2, exponent);
+
+        Ranked previous = byPost.get(postId);
+        if (previous == null && delta <= 0) {
+            return; // retrait sur un post non suivi (oublié ou déjà à zéro)
+        }
+        double score = previous == null ? delta : previous.score + delta;
+        boolean wasTop = previous != null && previous.score >= topThreshold;
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (score <= 0) {
+            byPost.remove(postId);
+        } else {
+            Ranked ranked = new Ranked(postId, score);
+            byPost.put(postId, ranked);
+            ranking.add(ranked);
+            if (ranking.size() > maxTracked) {
+                byPost.remove(ranking.pollLast().postId);
+            }
+        }
+        if (wasTop || score >= topThreshold || top.length < maxTop) {
+            publishTop();
+        }
+    }
+
+    /**
+     * Les limit posts les mieux classés, du premier au dernier. O(limit), sans verrou.
+     */
+    public long[] top(int limit) {
+        long[] snapshot = top;
+        return snapshot.length <= limit ? snapshot.clone() : Arrays.copyOf(snapshot, limit);
+    }
+
+    public synchronized int size() {
+        return byPost.size();
+    }
+
+    // Score décru à l'instant nowMillis, 0 si le post n'est pas suivi
+    public synchronized double score(long postId, long nowMillis) {
+        Ranked ranked = byPost.get(postId);
+        return ranked == null ? 0 : ranked.score * Math.pow(2, (originMillis - nowMillis) / halfLifeMillis);
+    }
+
+    private void publishTop() {
+        long[] ids = new long[Math.min(maxTop, ranking.size())];
+        double last = Double.NEGATIVE_INFINITY;
+        int i = 0;
+        for (Ranked ranked : ranking) {
+            if (i == ids.length) {
+                break;
+            }
+            ids[i++] = ranked.postId;
+            last = ranked.score;
+        }
+        top = ids;
+        topThreshold = ids.length == maxTop ? last : Double.NEGATIVE_INFINITY;
+    }
+
+    // Même facteur pour tous les scores : l'ordre ne change pas
+    private void reanchor(long newOriginMillis) {
+        double factor = Math.pow(2, (originMillis - newOriginMillis) / halfLifeMillis);
+        originMillis = newOriginMillis;
+        Ranked[] all = ranking.toArray(new Ranked[0]);
+        ranking.clear();
+        byPost.clear();
+        for (Ranked ranked : all) {
+            Ranked scaled = new Ranked(ranked.postId, ranked.score * factor);
+            if (scaled.score > 0) {
+                byPost.put(scaled.postId, scaled);
+                ranking.add(scaled);
+            }
+        }
+        publishTop();
+    }
+
+    private static final class Ranked implements Comparable<Ranked> {
+        private final long postId;
+        private final double score;
+
+        private Ranked(long postId, double score) {
+            this.postId = postId;
+            this.score = score;
+        }
+
+        // Meilleur score d'abord, puis le plus récent (id le plus grand)
+        @Override
+        public int compareTo(Ranked other) {
+            int byScore = Double.compare(other.score, score);
+            return byScore != 0 ? byScore : Long.compare(other.postId, postId);
+        }
+    }
+}
@@ -1,18 +1,23 @@
 package ma.blogguer.blog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import ma.blogguer.blog.dto.*;
 import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
 import ma.blogguer.blog.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("blog.service")
 @RequiredArgsConstructor
-@Transactional
 public class AuthService {
 
     private final UserRepository userRepository;
@@ -20,6 +25,9 @@ public class AuthService {
     private final JwtService jwtService;
     private final GoogleAuthService googleAuthService;
     private final AuthenticationManager authenticationManager;
+    private final UserStateCache userStateCache;
+    private final UserLookupCache userLookupCache;
+    private final ApplicationEventPublisher eventPublisher;
 
     public AuthResponse register(RegisterRequest request) {
         // ... (rest of register method unchanged)
@@ -38,24 +46,26 @@ public class AuthService {
             return AuthResponse.error("Les mots de passe ne correspondent pas");
         }
 
-        System.out.println("DEBUG REGISTER: Received Role=" + request.getRole());
-        System.out.println("DEBUG REGISTER: Received Username=" + request.getUsername());
-
         // Générer un avatar par défaut basé sur le username
         String defaultAvatar = "https://ui-avatars.com/api/?name=" +
                 request.getUsername().replace(" ", "+") +
                 "&background=random&color=fff&size=200";
 
+        // Hachage BCrypt (file du pool comprise) avant toute transaction : seul save() tient une connexion
+        String encodedPassword = passwordEncoder.encode(request.getPassword());
+
         var user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(encodedPassword)
                 .role(User.Role.valueOf(request.getRole() != null ? request.getRole() : "READER"))
                 .avatar(defaultAvatar) // Ajouter l'avatar par défaut
                 .enabled(true)
                 .build();
 
         userRepository.save(user);
+        // Un email inconnu a pu être mis en cache comme absent
+        userLookupCache.evict(user);
 
         var jwtToken = jwtService.generateToken(user);
         return AuthResponse.success(
@@ -67,16 +77,16 @@ public class AuthService {
                 user.getAvatar());
     }
 
+    // Sans transaction : la connexion du chargement de l'utilisateur est rendue avant la vérification BCrypt
     public AuthResponse authenticate(AuthRequest request) {
-        // ... (authenticate method unchanged)
         try {
-            authenticationManager.authenticate(
+            // Le principal authentifié est l'utilisateur chargé par UserDetailsService : pas de seconde recherche
+            Authentication authentication = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
                             request.getEmail(),
                             request.getPassword()));
 
-            var user = userRepository.findByEmail(request.getEmail())
-                    .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
+            var user = (User) authentication.getPrincipal();
 
             if (!user.isEnabled()) {
                 return AuthResponse.error("Le compte est désactivé");
@@ -90,7 +100,7 @@ public class AuthService {
                     user.getEmail(),
                     user.getRole().name(),
                     user.getAvatar());
-        } catch (Exception e) {
+        } catch (AuthenticationException e) {
             return AuthResponse.error("Email ou mot de passe incorrect");
         }
     }
@@ -124,7 +134,9 @@ public class AuthService {
                                 .avatar(userInfo.getPicture())
                                 .password(passwordEncoder.encode("GOOGLE_AUTH_NO_PASSWORD")) // Mot de passe dummy
                                 .build();
-                        return userRepository.save(newUser);
+                        User saved = userRepository.save(newUser);
+                        userLookupCache.evict(saved);
+                        return saved;
                     });
 
             // 3. Générer token JWT
@@ -144,6 +156,7 @@ public class AuthService {
     }
 
     // Méthode pour mettre à jour le profil
+    @Transactional
     public AuthResponse updateProfile(UpdateProfileRequest request, String token) {
         String userEmail = jwtService.extractUsername(token);
         var user = userRepository.findByEmail(userEmail)
@@ -167,6 +180,8 @@ public class AuthService {
         }
 
         userRepository.save(user);
+        // Caches d'utilisateurs, fil public et versions : tous vidés après le commit
+        eventPublisher.publishEvent(new UserProfileChangedEvent(user.getId(), user.getEmail()));
 
         // Regénérer token avec nouvelles infos (optionnel, mais bon pour la cohérence)
         var jwtToken = jwtService.generateToken(user);
@@ -185,18 +200,19 @@ public class AuthService {
     // Méthode pour récupérer le profil utilisateur
     public UserProfile getCurrentUser(String token) {
         String userEmail = jwtService.extractUsername(token);
-        var user = userRepository.findByEmail(userEmail)
+        var user = userLookupCache.findByEmail(userEmail)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-        return UserProfile.fromUser(user);
+        return UserProfile.fromCachedUser(user);
     }
 
     // Méthode pour valider un token
     public boolean validateToken(String token) {
         try {
+            // extractAllClaims échoue déjà si la signature ou l'expiration est invalide
             String userEmail = jwtService.extractUsername(token);
-            var user = userRepository.findByEmail(userEmail)
+            var user = userLookupCache.findByEmail(userEmail)
                     .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé"));
-            return jwtService.isTokenValid(token, user);
+            return user.isEnabled();
         } catch (Exception e) {
             return false;
         }
@@ -1,15 +1,23 @@
 package ma.blogguer.blog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import ma.blogguer.blog.dto.AuthorDTO;
+import ma.blogguer.blog.dto.CachedUser;
 import ma.blogguer.blog.dto.CommentRequest;
 import ma.blogguer.blog.dto.CommentResponse;
+import ma.blogguer.blog.dto.CursorPage;
 import ma.blogguer.blog.entity.Comment;
 import ma.blogguer.blog.entity.Post;
 import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.CommentChangedEvent;
 import ma.blogguer.blog.repository.CommentRepository;
 import ma.blogguer.blog.repository.PostRepository;
 import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.util.RequestMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,24 +25,33 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("blog.service")
 @RequiredArgsConstructor
 public class CommentService {
 
         private final CommentRepository commentRepository;
         private final PostRepository postRepository;
         private final UserRepository userRepository;
+        private final UserLookupCache userLookupCache;
+        private final CommentTailCache commentTailCache;
+        private final ApplicationEventPublisher eventPublisher;
+
+        @Value("${application.comments.default-page-size:20}")
+        private int defaultPageSize;
+
+        @Value("${application.comments.max-page-size:50}")
+        private int maxPageSize;
 
         @Transactional
         public CommentResponse addComment(Long postId, CommentRequest request, String userEmail) {
-                User user = userRepository.findByEmail(userEmail)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                CachedUser user = userLookupCache.getByEmail(userEmail);
 
                 Post post = postRepository.findById(postId)
                                 .orElseThrow(() -> new RuntimeException("Post not found"));
 
                 Comment comment = Comment.builder()
                                 .post(post)
-                                .user(user)
+                                .user(userRepository.getReferenceById(user.getId()))
                                 .content(request.getContent())
                                 .build();
 
@@ -44,31 +61,74 @@ public class CommentService {
                 post.setCommentsCount(post.getCommentsCount() + 1);
                 postRepository.save(post);
 
-                return toCommentResponse(savedComment, userEmail);
+                // L'auteur est l'utilisateur courant : pas besoin de charger l'entité User
+                CommentTailCache.CachedComment cached = new CommentTailCache.CachedComment(
+                                savedComment.getId(), savedComment.getContent(), user.toAuthorDTO(),
+                                savedComment.getCreatedAt());
+                commentTailCache.commentAdded(postId, cached);
+                eventPublisher.publishEvent(new CommentChangedEvent(postId, savedComment.getId(), true));
+
+                return toCommentResponse(cached, userEmail);
         }
 
-        @Transactional(readOnly = true)
         public List<CommentResponse> getCommentsForPost(Long postId, String userEmail) {
-                System.out.println("🔍 getCommentsForPost appelé - postId: " + postId + ", userEmail: " + userEmail);
-                
-                try {
-                        List<Comment> comments = commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
-                        System.out.println("✅ " + comments.size() + " commentaires trouvés dans la base de données");
-                        
-                        List<CommentResponse> responses = comments.stream()
-                                        .map(comment -> {
-                                                System.out.println("📝 Conversion du commentaire ID: " + comment.getId());
-                                                return toCommentResponse(comment, userEmail);
-                                        })
-                                        .collect(Collectors.toList());
-                        
-                        System.out.println("✅ " + responses.size() + " commentaires convertis avec succès");
-                        return responses;
-                } catch (Exception e) {
-                        System.err.println("❌ ERREUR dans getCommentsForPost: " + e.getMessage());
-                        e.printStackTrace();
-                        throw e;
+                return getComments(postId, null, null, userEmail).getItems();
+        }
+
+        // Pas de transaction : une page servie par le cache ne doit pas mobiliser de connexion
+        public CursorPage<CommentResponse> getComments(Long postId, String cursor, Integer size, String userEmail) {
+                int pageSize = resolvePageSize(size);
+                boolean firstPage = cursor == null || cursor.isBlank();
+
+                // Première page servie depuis le cache des derniers commentaires
+                List<CommentTailCache.CachedComment> comments = firstPage
+                                ? commentTailCache.firstPage(postId, pageSize)
+                                : null;
+
+                if (comments == null) {
+                        long generation = commentTailCache.generation(postId);
+                        if (firstPage) {
+                                // On lit toute la fenêtre du cache (+1 pour savoir si elle est complète)
+                                int window = Math.max(pageSize, commentTailCache.getTailSize());
+                                List<CommentTailCache.CachedComment> newest = toCachedComments(
+                                                commentRepository.findPage(postId, Limit.of(window + 1)));
+                                commentTailCache.store(postId, newest, newest.size() <= window, generation);
+                                comments = newest.subList(0, Math.min(newest.size(), pageSize + 1));
+                        } else {
+                                PageCursor after = PageCursor.decode(cursor);
+                                comments = toCachedComments(commentRepository.findPageAfter(
+                                                postId, after.getCreatedAt(), after.getId(), Limit.of(pageSize + 1)));
+                        }
                 }
+
+                boolean hasMore = comments.size() > pageSize;
+                if (hasMore) {
+                        comments = comments.subList(0, pageSize);
+                }
+                RequestMetrics.addRows(comments.size());
+
+                List<CommentResponse> items = comments.stream()
+                                .map(comment -> toCommentResponse(comment, userEmail))
+                                .collect(Collectors.toList());
+
+                String nextCursor = null;
+                if (hasMore) {
+                        CommentTailCache.CachedComment last = comments.get(comments.size() - 1);
+                        nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+                }
+
+                return CursorPage.<CommentResponse>builder()
+                                .items(items)
+                                .nextCursor(nextCursor)
+                                .hasMore(hasMore)
+                                .build();
+        }
+
+        private int resolvePageSize(Integer size) {
+                if (size == null || size <= 0) {
+                        return defaultPageSize;
+                }
+                return Math.min(size, maxPageSize);
         }
 
         @Transactional
@@ -76,8 +136,7 @@ public class CommentService {
                 Comment comment = commentRepository.findById(commentId)
                                 .orElseThrow(() -> new RuntimeException("Comment not found"));
 
-                User user = userRepository.findByEmail(userEmail)
-                                .orElseThrow(() -> new RuntimeException("User not found"));
+                CachedUser user = userLookupCache.getByEmail(userEmail);
 
                 // Check if user owns the comment
                 if (!comment.getUser().getId().equals(user.getId())) {
@@ -90,15 +149,27 @@ public class CommentService {
                 postRepository.save(post);
 
                 commentRepository.delete(comment);
+                commentTailCache.commentDeleted(post.getId(), comment.getId());
+                eventPublisher.publishEvent(new CommentChangedEvent(post.getId(), comment.getId(), false));
+        }
+
+        private List<CommentTailCache.CachedComment> toCachedComments(List<Comment> comments) {
+                return comments.stream()
+                                .map(comment -> new CommentTailCache.CachedComment(
+                                                comment.getId(),
+                                                comment.getContent(),
+                                                toAuthorDTO(comment.getUser()),
+                                                comment.getCreatedAt()))
+                                .collect(Collectors.toList());
         }
 
-        private CommentResponse toCommentResponse(Comment comment, String currentUserEmail) {
-                boolean canDelete = currentUserEmail != null && comment.getUser().getEmail().equals(currentUserEmail);
+        private CommentResponse toCommentResponse(CommentTailCache.CachedComment comment, String currentUserEmail) {
+                boolean canDelete = currentUserEmail != null && comment.getAuthor().getEmail().equals(currentUserEmail);
 
                 return CommentResponse.builder()
                                 .id(comment.getId())
                                 .content(comment.getContent())
-                                .author(toAuthorDTO(comment.getUser()))
+                                .author(comment.getAuthor())
                                 .createdAt(comment.getCreatedAt())
                                 .canDelete(canDelete)
                                 .build();
@@ -0,0 +1,170 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ma.blogguer.blog.dto.AuthorDTO;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Derniers commentaires de chaque post, en mémoire, pour servir la première
+ * page sans requête. Mis à jour (et non invalidé) à l'ajout et à la suppression ;
+ * vidé quand un profil change, les auteurs y étant recopiés.
+ */
+@Service
+public class CommentTailCache implements MeterBinder {
+
+    @Value("${application.comments.tail-size:50}")
+    private int tailSize;
+
+    @Value("${application.comments.tail-cache.max-posts:10000}")
+    private long maxPosts;
+
+    @Value("${application.comments.tail-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    // Générations réparties par post (modulo) : une écriture n'empêche la mise en cache
+    // que pour son post et ceux qui partagent sa case, pas pour tous les posts
+    private static final int GENERATION_SLOTS = 4096;
+
+    private Cache<Long, Tail> tails;
+
+    // Incrémenté à chaque écriture : une page lue avant une écriture sur le post n'est pas mise en cache
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_SLOTS);
+
+    @PostConstruct
+    void init() {
+        tails = Caffeine.newBuilder()
+                .maximumSize(maxPosts)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tails, "comment-tail");
+    }
+
+    public int getTailSize() {
+        return tailSize;
+    }
+
+    public long generation(Long postId) {
+        return generations.get(slot(postId));
+    }
+
+    /**
+     * @return les {@code size} premiers commentaires et un indicateur de suite,
+     *         ou null si le cache ne peut pas répondre
+     */
+    public List<CachedComment> firstPage(Long postId, int size) {
+        Tail tail = tails.getIfPresent(postId);
+        if (tail == null) {
+            return null;
+        }
+        // Il faut size + 1 éléments (ou la liste complète) pour savoir s'il y a une suite
+        if (!tail.isComplete() && tail.getComments().size() <= size) {
+            return null;
+        }
+        return tail.getComments().subList(0, Math.min(tail.getComments().size(), size + 1));
+    }
+
+    /**
+     * Mémorise les plus récents commentaires lus en base, sauf si une écriture a eu
+     * lieu sur ce post depuis {@code readGeneration}.
+     */
+    public void store(Long postId, List<CachedComment> newest, boolean complete, long readGeneration) {
+        List<CachedComment> comments = newest.size() > tailSize ? newest.subList(0, tailSize) : newest;
+        Tail tail = new Tail(List.copyOf(comments), complete && newest.size() <= tailSize);
+        tails.asMap().compute(postId, (id, current) ->
+                generations.get(slot(postId)) == readGeneration ? tail : current);
+    }
+
+    public void commentAdded(Long postId, CachedComment comment) {
+        afterCommit(postId, () -> tails.asMap().computeIfPresent(postId, (id, tail) -> {
+            List<CachedComment> comments = new ArrayList<>(tail.getComments().size() + 1);
+            comments.add(comment);
+            comments.addAll(tail.getComments());
+            boolean complete = tail.isComplete();
+            if (comments.size() > tailSize) {
+                comments = comments.subList(0, tailSize);
+                complete = false;
+            }
+            return new Tail(List.copyOf(comments), complete);
+        }));
+    }
+
+    public void commentDeleted(Long postId, Long commentId) {
+        afterCommit(postId, () -> tails.asMap().computeIfPresent(postId, (id, tail) -> {
+            List<CachedComment> comments = new ArrayList<>(tail.getComments());
+            comments.removeIf(comment -> comment.getId().equals(commentId));
+            return new Tail(List.copyOf(comments), tail.isComplete());
+        }));
+    }
+
+    // Nom ou avatar d'auteur recopié dans les commentaires : toutes les listes sont à relire,
+    // et une lecture en cours (générations incrémentées) ne remet pas l'ancien auteur en cache
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        for (int slot = 0; slot < GENERATION_SLOTS; slot++) {
+            generations.incrementAndGet(slot);
+        }
+        tails.invalidateAll();
+    }
+
+    private void afterCommit(Long postId, Runnable update) {
+        int slot = slot(postId);
+        generations.incrementAndGet(slot);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    generations.incrementAndGet(slot);
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static int slot(Long postId) {
+        return Long.hashCode(postId) & (GENERATION_SLOTS - 1);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Tail {
+        private final List<CachedComment> comments;
+        private final boolean complete; // true : le post n'a pas d'autres commentaires
+    }
+
+    /**
+     * Commentaire figé, indépendant de l'utilisateur courant (canDelete est calculé à la lecture).
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedComment {
+        private final Long id;
+        private final String content;
+        private final AuthorDTO author;
+        private final LocalDateTime createdAt;
+    }
+}
@@ -0,0 +1,203 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ma.blogguer.blog.event.CommentChangedEvent;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostLikeChangedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versions en mémoire des posts, du fil et des commentaires, pour répondre aux
+ * GET conditionnels (If-None-Match / If-Modified-Since) sans toucher à la base.
+ *
+ * Une version change dès que ce qui est affiché change : updatedAt, likes ou
+ * commentsCount d'un post, création de post pour le fil, profil d'un auteur
+ * pour tout, likes d'un utilisateur pour ses likedByCurrentUser. Les versions sont
+ * incrémentées après commit : un client ne peut
+ * donc jamais associer une nouvelle version à un ancien contenu.
+ *
+ * L'unicité est portée par l'ETag. Last-Modified est la seconde du dernier
+ * changement et n'est jamais postérieur à l'horloge : deux changements dans la
+ * même seconde ne se distinguent que par l'ETag.
+ */
+@Service
+public class ContentVersionService {
+
+    // Distingue les ETags de deux démarrages (les compteurs repartent de zéro)
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    // Horloge logique partagée : une version recréée après éviction n'est jamais
+    // inférieure à celle qu'elle remplace
+    private final AtomicLong clock = new AtomicLong();
+
+    @Value("${application.http.versions.max-posts:100000}")
+    private long maxPosts;
+
+    @Value("${application.http.versions.max-users:100000}")
+    private long maxUsers;
+
+    private volatile Stamp global;
+    private volatile Stamp feed;
+    private Cache<Long, Stamp> posts;
+    private Cache<Long, Stamp> comments;
+    private Cache<Long, Stamp> likers;
+
+    @PostConstruct
+    void init() {
+        global = freshStamp();
+        feed = freshStamp();
+        posts = Caffeine.newBuilder().maximumSize(maxPosts).build();
+        comments = Caffeine.newBuilder().maximumSize(maxPosts).build();
+        likers = Caffeine.newBuilder().maximumSize(maxUsers).build();
+    }
+
+    /**
+     * @param variant ce qui distingue deux réponses pour la même version
+     *                (utilisateur, curseur, taille...)
+     */
+    public Validator feed(Object... variant) {
+        return validator("f", global, feed, variant);
+    }
+
+    /**
+     * Version courante du fil, à relever avant de le lire : un contenu construit
+     * ensuite reflète au moins cet état, tout changement ultérieur en donnera une autre.
+     */
+    public String feedVersion() {
+        return global.getVersion() + "." + feed.getVersion();
+    }
+
+    /**
+     * Version des likes d'un utilisateur, à mettre dans la variante des réponses qui
+     * portent likedByCurrentUser ; null pour un visiteur.
+     */
+    public Long likesVersion(Long userId) {
+        return userId != null ? likers.get(userId, id -> freshStamp()).getVersion() : null;
+    }
+
+    public Validator post(Long postId, Object... variant) {
+        return validator("p" + postId, global, posts.get(postId, id -> freshStamp()), variant);
+    }
+
+    public Validator comments(Long postId, Object... variant) {
+        return validator("c" + postId, global, comments.get(postId, id -> freshStamp()), variant);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        feed = next(feed);
+    }
+
+    // Un lot importé : une seule nouvelle version du fil
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsImported(PostsImportedEvent event) {
+        feed = next(feed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(PostLikeChangedEvent event) {
+        bumpPost(event.getPostId());
+        if (event.getUserId() != null) {
+            likers.asMap().compute(event.getUserId(), (id, stamp) -> next(stamp));
+        }
+        feed = next(feed);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        bumpPost(event.getPostId());
+        comments.asMap().compute(event.getPostId(), (id, stamp) -> next(stamp));
+        feed = next(feed);
+    }
+
+    // Nom ou avatar d'auteur recopié partout : toutes les versions changent
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        global = next(global);
+    }
+
+    private void bumpPost(Long postId) {
+        posts.asMap().compute(postId, (id, stamp) -> next(stamp));
+    }
+
+    private Validator validator(String resource, Stamp base, Stamp stamp, Object... variant) {
+        String etag = resource + "-" + bootId + "." + base.getVersion() + "." + stamp.getVersion()
+                + "-" + variantDigest(variant);
+        return new Validator(etag, Math.max(base.getLastModified(), stamp.getLastModified()));
+    }
+
+    private Stamp freshStamp() {
+        return new Stamp(clock.get(), floorSecond(System.currentTimeMillis()));
+    }
+
+    // Last-Modified suit l'horloge (à la seconde) ; la version, elle, change toujours
+    private Stamp next(Stamp previous) {
+        return new Stamp(clock.incrementAndGet(), floorSecond(System.currentTimeMillis()));
+    }
+
+    // SHA-256 tronqué à 128 bits : deux variantes (utilisateur, curseur, taille...)
+    // distinctes ne partagent pas d'ETag en pratique
+    private static String variantDigest(Object... variant) {
+        StringBuilder encoded = new StringBuilder();
+        for (Object part : variant) {
+            appendPart(encoded, part);
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(encoded.toString().getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, 16));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    // Chaque partie est préfixée de sa longueur : ("ab", "c") et ("a", "bc") restent distincts
+    private static void appendPart(StringBuilder out, Object part) {
+        if (part == null) {
+            out.append('-');
+        } else if (part instanceof Collection<?> parts) {
+            out.append('[').append(parts.size()).append(':');
+            for (Object item : parts) {
+                appendPart(out, item);
+            }
+            out.append(']');
+        } else {
+            String value = part.toString();
+            out.append(value.length()).append(':').append(value);
+        }
+    }
+
+    private static long floorSecond(long millis) {
+        return millis - millis % 1000;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Stamp {
+        private final long version;
+        private final long lastModified;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Validator {
+        private final String etag;
+        private final long lastModified;
+    }
+}
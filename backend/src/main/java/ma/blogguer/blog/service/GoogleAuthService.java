@@ -1,51 +1,180 @@
 package ma.blogguer.blog.service;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import ma.blogguer.blog.dto.OAuth2UserInfo;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import tools.jackson.databind.ObjectMapper;
 
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Vérification locale des ID tokens Google : signature RS256 avec les clés du JWKS,
+ * audience (client ID), émetteur et expiration. Aucun appel réseau pendant la connexion :
+ * les clés sont chargées au démarrage, gardées en mémoire et rafraîchies en arrière-plan.
+ *
+ * Un kid inconnu (rotation des clés chez Google) déclenche un rechargement immédiat,
+ * au plus une fois toutes les min-reload-interval-ms. En cas d'échec d'un
+ * rafraîchissement, les clés déjà chargées restent utilisées.
+ */
 @Slf4j
 @Service
+@RequiredArgsConstructor
 public class GoogleAuthService {
 
+    private static final Set<String> ISSUERS = Set.of("accounts.google.com", "https://accounts.google.com");
+
+    private final GoogleKeySource keySource;
+
     @Value("${spring.security.oauth2.client.registration.google.client-id}")
     private String googleClientId;
 
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final tools.jackson.databind.ObjectMapper objectMapper = new ObjectMapper();
+    @Value("${application.google.clock-skew-seconds:60}")
+    private long clockSkewSeconds;
 
-    public OAuth2UserInfo validateGoogleToken(String idToken) {
-        try {
-            // Appeler Google API pour valider le token
-            String url = "https://oauth2.googleapis.com/tokeninfo?id_token=" + idToken;
+    @Value("${application.google.jwks-min-reload-interval-ms:60000}")
+    private long minReloadIntervalMs;
+
+    @Value("${application.google.jwks-warm-on-startup:true}")
+    private boolean warmOnStartup;
 
-            String response = restTemplate.getForObject(url, String.class);
-            Map<String, Object> claims = objectMapper.readValue(response, Map.class);
+    private JwtParser parser;
+    private volatile Map<String, PublicKey> keys = Map.of();
+    // Pas de synchronized : le chargement fait un appel HTTP, un thread virtuel y resterait épinglé
+    private final ReentrantLock reloadLock = new ReentrantLock();
+    private long lastReloadAttempt;
 
-            // Vérifier l'audience (client ID)
-            String audience = (String) claims.get("aud");
-            if (!googleClientId.equals(audience)) {
-                throw new RuntimeException("Token Google invalide");
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                    @Override
+                    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                        return resolveKey(header);
+                    }
+                })
+                .requireAudience(googleClientId)
+                .setAllowedClockSkewSeconds(clockSkewSeconds)
+                .build();
+    }
+
+    public OAuth2UserInfo validateGoogleToken(String idToken) {
+        try {
+            Claims claims = parser.parseClaimsJws(idToken).getBody();
+            if (!ISSUERS.contains(claims.getIssuer())) {
+                throw new JwtException("Émetteur inattendu: " + claims.getIssuer());
+            }
+            if (claims.getExpiration() == null) {
+                throw new JwtException("Token sans expiration");
             }
 
             return OAuth2UserInfo.builder()
-                    .id((String) claims.get("sub"))
-                    .email((String) claims.get("email"))
-                    .name((String) claims.get("name"))
-                    .givenName((String) claims.get("given_name"))
-                    .familyName((String) claims.get("family_name"))
-                    .picture((String) claims.get("picture"))
+                    .id(claims.getSubject())
+                    .email(claims.get("email", String.class))
+                    .name(claims.get("name", String.class))
+                    .givenName(claims.get("given_name", String.class))
+                    .familyName(claims.get("family_name", String.class))
+                    .picture(claims.get("picture", String.class))
                     .provider("google")
                     .build();
 
-        } catch (Exception e) {
-            log.error("Erreur lors de la validation du token Google", e);
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("Token Google rejeté: {}", e.getMessage());
             throw new RuntimeException("Token Google invalide");
         }
     }
-}
\ No newline at end of file
+
+    // Chargement sur un thread virtuel : l'appel au JWKS (jusqu'au timeout HTTP) ne retarde pas
+    // la fin du démarrage ; une connexion arrivée avant attend le verrou et trouve les clés chargées
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmKeysInBackground() {
+        if (warmOnStartup) {
+            Thread.ofVirtual().name("google-jwks-warm").start(this::warmKeys);
+        }
+    }
+
+    // En cas d'échec, la première connexion retente le chargement sans attendre l'intervalle minimal
+    public void warmKeys() {
+        if (!warmOnStartup) {
+            return;
+        }
+        reloadLock.lock();
+        try {
+            reloadKeys();
+        } catch (RuntimeException e) {
+            lastReloadAttempt = 0;
+            log.warn("Préchargement des clés Google échoué, chargement à la première connexion: {}", e.getMessage());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.google.jwks-refresh-ms:3600000}",
+            initialDelayString = "${application.google.jwks-refresh-ms:3600000}")
+    public void refreshKeys() {
+        try {
+            reloadKeys();
+        } catch (RuntimeException e) {
+            log.warn("Rafraîchissement des clés Google échoué, {} clés conservées: {}", keys.size(), e.getMessage());
+        }
+    }
+
+    private Key resolveKey(JwsHeader<?> header) {
+        if (!SignatureAlgorithm.RS256.getValue().equals(header.getAlgorithm())) {
+            throw new JwtException("Algorithme refusé: " + header.getAlgorithm());
+        }
+        String kid = header.getKeyId();
+        PublicKey key = keys.get(kid);
+        if (key == null) {
+            key = reloadIfAllowed().get(kid);
+        }
+        if (key == null) {
+            throw new JwtException("Clé de signature inconnue: " + kid);
+        }
+        return key;
+    }
+
+    // Premier chargement, ou rotation : un seul rechargement concurrent, et pas plus d'un par intervalle
+    private Map<String, PublicKey> reloadIfAllowed() {
+        reloadLock.lock();
+        try {
+            if (System.currentTimeMillis() - lastReloadAttempt >= minReloadIntervalMs) {
+                try {
+                    reloadKeys();
+                } catch (RuntimeException e) {
+                    log.warn("Chargement des clés Google échoué: {}", e.getMessage());
+                }
+            }
+            return keys;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    private void reloadKeys() {
+        reloadLock.lock();
+        try {
+            lastReloadAttempt = System.currentTimeMillis();
+            Map<String, PublicKey> loaded = Map.copyOf(keySource.fetchKeys());
+            keys = loaded;
+            log.info("Clés Google chargées: {}", loaded.keySet());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ma.blogguer.blog.service;
+
+import java.security.PublicKey;
+import java.util.Map;
+
+/**
+ * Clés publiques de signature des ID tokens Google, indexées par kid.
+ * Implémentation par défaut : HttpGoogleKeySource (JWKS publié par Google) ;
+ * un autre bean peut la remplacer (tests, environnement sans accès sortant).
+ */
+public interface GoogleKeySource {
+
+    Map<String, PublicKey> fetchKeys();
+}
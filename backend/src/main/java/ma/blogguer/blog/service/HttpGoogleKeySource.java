@@ -0,0 +1,84 @@
+package ma.blogguer.blog.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.math.BigInteger;
+import java.net.http.HttpClient;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lit le JWKS de Google (clés RSA au format JWK : module n et exposant e en base64url).
+ * Appelé seulement au chargement et aux rafraîchissements de GoogleAuthService,
+ * jamais pendant une connexion ordinaire.
+ */
+@Component
+@RequiredArgsConstructor
+public class HttpGoogleKeySource implements GoogleKeySource {
+
+    private final JsonMapper jsonMapper;
+
+    @Value("${application.google.jwks-uri:https://www.googleapis.com/oauth2/v3/certs}")
+    private String jwksUri;
+
+    @Value("${application.google.connect-timeout-ms:3000}")
+    private long connectTimeoutMs;
+
+    @Value("${application.google.read-timeout-ms:5000}")
+    private long readTimeoutMs;
+
+    private RestTemplate restTemplate;
+
+    // Client HTTP du JDK : compatible threads virtuels, et délais bornés pour qu'une
+    // lenteur de Google n'immobilise pas le thread de rafraîchissement indéfiniment
+    @PostConstruct
+    void init() {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(readTimeoutMs));
+        restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public Map<String, PublicKey> fetchKeys() {
+        String body = restTemplate.getForObject(jwksUri, String.class);
+        JsonNode root = jsonMapper.readTree(body);
+        Map<String, PublicKey> keys = new HashMap<>();
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+            for (JsonNode jwk : root.path("keys")) {
+                if (!"RSA".equals(jwk.path("kty").asString()) || !jwk.hasNonNull("kid")) {
+                    continue;
+                }
+                BigInteger modulus = decode(jwk.path("n").asString());
+                BigInteger exponent = decode(jwk.path("e").asString());
+                keys.put(jwk.path("kid").asString(), keyFactory.generatePublic(new RSAPublicKeySpec(modulus, exponent)));
+            }
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWKS Google illisible", e);
+        }
+        if (keys.isEmpty()) {
+            throw new IllegalStateException("JWKS Google sans clé RSA");
+        }
+        return keys;
+    }
+
+    private static BigInteger decode(String base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url));
+    }
+}
@@ -0,0 +1,183 @@
+package ma.blogguer.blog.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compteur de likes en écriture différée : les variations sont accumulées en
+ * mémoire par post (un LongAdder chacun) puis appliquées périodiquement par des
+ * {@code UPDATE posts SET likes = likes + ?} groupés en batch JDBC.
+ * La valeur à afficher est la valeur persistée plus la variation en attente.
+ *
+ * Une variation n'est retirée du compteur en attente qu'une fois son UPDATE validé :
+ * un échec ne fait rien perdre ni rien appliquer deux fois. Le commit et ce retrait se
+ * font sous un verrou que les lectures valident (lecture optimiste) : une lecture qui
+ * voit la ligne validée voit aussi la variation retirée, rien n'est compté deux fois.
+ * Seule une lecture dont la ligne a été lue avant le commit et le compteur après le
+ * retrait affiche la valeur précédente, jusqu'à sa lecture suivante.
+ * Les compteurs revenus à zéro sont retirés.
+ */
+@Service
+@RequiredArgsConstructor
+public class LikeCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(LikeCounterService.class);
+
+    private static final String FLUSH_SQL = "UPDATE posts SET likes = likes + ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Écriture : du commit d'un flush au retrait de ses variations
+    private final StampedLock visibility = new StampedLock();
+
+    public void increment(Long postId) {
+        add(postId, 1);
+    }
+
+    public void decrement(Long postId) {
+        add(postId, -1);
+    }
+
+    public void add(Long postId, long delta) {
+        // Dans une transaction, la variation n'est visible qu'après le commit
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(postId, delta);
+                }
+            });
+        } else {
+            apply(postId, delta);
+        }
+    }
+
+    public long pendingDelta(Long postId) {
+        long stamp = visibility.tryOptimisticRead();
+        long delta = sumOf(postId);
+        if (!visibility.validate(stamp)) {
+            stamp = visibility.readLock();
+            try {
+                delta = sumOf(postId);
+            } finally {
+                visibility.unlockRead(stamp);
+            }
+        }
+        return delta;
+    }
+
+    private long sumOf(Long postId) {
+        LongAdder counter = pending.get(postId);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    public int currentLikes(Long postId, int persistedLikes) {
+        return (int) Math.max(0, persistedLikes + pendingDelta(postId));
+    }
+
+    @Scheduled(fixedDelayString = "${application.likes.flush-interval-ms:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            // Variations lues sans être retirées : un ajout concurrent reste dans le compteur
+            List<Object[]> batch = new ArrayList<>();
+            for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+                long delta = entry.getValue().sum();
+                if (delta != 0) {
+                    batch.add(new Object[] { delta, entry.getKey() });
+                }
+            }
+            if (!batch.isEmpty()) {
+                try {
+                    // Tout ou rien : un lot en échec reste entièrement en attente
+                    transactionTemplate.executeWithoutResult(status -> {
+                        jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+                        TransactionSynchronizationManager.registerSynchronization(new DrainOnCommit(batch));
+                    });
+                    log.debug("Compteurs de likes appliqués pour {} posts", batch.size());
+                } catch (RuntimeException e) {
+                    log.error("Échec de l'écriture des compteurs de likes ({} posts): {}", batch.size(), e.getMessage());
+                    return;
+                }
+            }
+            evictDrained();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Ajout sous le verrou de l'entrée : evictDrained ne peut pas retirer un compteur
+    // entre sa lecture et notre ajout (la variation serait reportée après avoir été écrite)
+    private void apply(Long postId, long delta) {
+        pending.compute(postId, (id, counter) -> {
+            LongAdder target = counter != null ? counter : new LongAdder();
+            target.add(delta);
+            return target;
+        });
+    }
+
+    // Verrou pris juste avant le commit, variations retirées et verrou rendu juste après :
+    // aucune lecture validée ne voit à la fois la ligne à jour et la variation encore en attente
+    private final class DrainOnCommit implements TransactionSynchronization {
+
+        private final List<Object[]> batch;
+        private long stamp;
+
+        private DrainOnCommit(List<Object[]> batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            stamp = visibility.writeLock();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            if (stamp == 0) {
+                return;
+            }
+            try {
+                if (status == STATUS_COMMITTED) {
+                    for (Object[] row : batch) {
+                        pending.get((Long) row[1]).add(-((Long) row[0]));
+                    }
+                }
+            } finally {
+                visibility.unlockWrite(stamp);
+            }
+        }
+    }
+
+    // Retrait atomique (sous le verrou de l'entrée) des compteurs à zéro ; un ajout qui
+    // arrive après le contrôle crée un nouveau compteur (voir apply)
+    private void evictDrained() {
+        for (Long postId : pending.keySet()) {
+            pending.computeIfPresent(postId, (id, counter) -> counter.sum() == 0 ? null : counter);
+        }
+    }
+}
@@ -1,57 +1,57 @@
 package ma.blogguer.blog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.CachedUser;
 import ma.blogguer.blog.dto.LikeResponse;
 import ma.blogguer.blog.entity.Like;
-import ma.blogguer.blog.entity.Post;
-import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.PostLikeChangedEvent;
 import ma.blogguer.blog.repository.LikeRepository;
-import ma.blogguer.blog.repository.PostRepository;
-import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.util.LongHashSet;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("blog.service")
 @RequiredArgsConstructor
 public class LikeService {
 
     private final LikeRepository likeRepository;
-    private final PostRepository postRepository;
-    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final LikeCounterService likeCounterService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    @Transactional
-    public boolean toggleLike(Long postId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        Post post = postRepository.findById(postId)
-                .orElseThrow(() -> new RuntimeException("Post not found"));
-
-        // Check if already liked
-        if (likeRepository.existsByUserIdAndPostId(user.getId(), postId)) {
-            // Unlike
-            likeRepository.deleteByUserIdAndPostId(user.getId(), postId);
-
-            // Update post likes count
-            post.setLikes(Math.max(0, post.getLikes() - 1));
-            postRepository.save(post);
+    /**
+     * Bascule le like en au plus deux instructions : DELETE, puis INSERT si rien
+     * n'a été supprimé. La contrainte unique (user_id, post_id) arbitre les clics
+     * concurrents, et le compteur est incrémenté en place par LikeCounterService.
+     */
+    public boolean toggleLike(Long postId, Long userId) {
+        if (likeRepository.deleteLike(userId, postId)) {
+            likeCounterService.decrement(postId);
+            eventPublisher.publishEvent(new PostLikeChangedEvent(postId, userId, false));
             return false; // unliked
-        } else {
-            // Like
-            Like like = Like.builder()
-                    .user(user)
-                    .post(post)
-                    .build();
-            likeRepository.save(like);
-
-            // Update post likes count
-            post.setLikes(post.getLikes() + 1);
-            postRepository.save(post);
-            return true; // liked
         }
+
+        try {
+            if (!likeRepository.insertLike(userId, postId)) {
+                // Un clic concurrent a déjà enregistré le like
+                return true;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Clé étrangère violée : le post n'existe pas
+            throw new RuntimeException("Post not found");
+        }
+
+        likeCounterService.increment(postId);
+        eventPublisher.publishEvent(new PostLikeChangedEvent(postId, userId, true));
+        return true; // liked
     }
 
     public List<LikeResponse> getLikesForPost(Long postId) {
@@ -61,8 +61,12 @@ public class LikeService {
                 .collect(Collectors.toList());
     }
 
+    public boolean hasUserLiked(Long postId, Long userId) {
+        return likeRepository.existsByUserIdAndPostId(userId, postId);
+    }
+
     public boolean hasUserLiked(Long postId, String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
+        CachedUser user = userLookupCache.findByEmail(userEmail)
                 .orElse(null);
 
         if (user == null) {
@@ -72,6 +76,27 @@ public class LikeService {
         return likeRepository.existsByUserIdAndPostId(user.getId(), postId);
     }
 
+    // Résout l'utilisateur une seule fois puis les likes de toute la page en une requête
+    @Transactional(readOnly = true)
+    public LongHashSet findLikedPostIds(String userEmail, Collection<Long> postIds) {
+        LongHashSet liked = new LongHashSet(postIds.size());
+        if (userEmail == null || userEmail.isEmpty() || postIds.isEmpty()) {
+            return liked;
+        }
+
+        CachedUser user = userLookupCache.findByEmail(userEmail)
+                .orElse(null);
+
+        if (user == null) {
+            return liked;
+        }
+
+        for (Long postId : likeRepository.findLikedPostIds(user.getId(), postIds)) {
+            liked.add(postId);
+        }
+        return liked;
+    }
+
     private LikeResponse toLikeResponse(Like like) {
         return LikeResponse.builder()
                 .userId(like.getUser().getId())
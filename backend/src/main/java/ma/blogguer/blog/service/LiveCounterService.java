@@ -0,0 +1,253 @@
+package ma.blogguer.blog.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.PostCounters;
+import ma.blogguer.blog.event.CommentChangedEvent;
+import ma.blogguer.blog.event.PostLikeChangedEvent;
+import ma.blogguer.blog.repository.PostRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Flux SSE des compteurs (likes, commentaires) pour un ensemble de posts, à la place
+ * du polling de GET /api/posts/{id}.
+ *
+ * - Les connexions inactives ne tiennent aucun thread (servlet asynchrone) : seulement
+ *   l'emitter et sa socket.
+ * - Les likes et commentaires ne font que marquer le post ; toutes les coalesce-ms, les
+ *   posts marqués sont relus en une requête et chaque trame SSE est sérialisée une seule
+ *   fois, puis partagée (mêmes octets) par tous les abonnés du post.
+ * - Chaque abonné garde au plus une trame en attente par post : un client lent reçoit
+ *   la dernière valeur, jamais une file qui grossit. Les envois se font sur des threads
+ *   virtuels, un client bloqué ne retarde pas les autres.
+ */
+@Service
+@RequiredArgsConstructor
+public class LiveCounterService implements MeterBinder {
+
+    private static final MediaType EVENT_STREAM = MediaType.TEXT_EVENT_STREAM;
+    // Clé réservée au heartbeat dans les trames en attente (les ids de posts sont positifs)
+    private static final long HEARTBEAT_KEY = 0L;
+    private static final Set<ResponseBodyEmitter.DataWithMediaType> HEARTBEAT =
+            frame(":keepalive\n\n".getBytes(StandardCharsets.UTF_8));
+    private static final int QUERY_BATCH_SIZE = 500;
+
+    private final PostRepository postRepository;
+    private final LikeCounterService likeCounterService;
+    private final JsonMapper jsonMapper;
+
+    @Value("${application.live.max-posts-per-subscription:100}")
+    private int maxPostsPerSubscription;
+
+    // Le client (EventSource) se reconnecte de lui-même à l'expiration
+    @Value("${application.live.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    private final Map<Long, Set<Subscription>> byPost = new ConcurrentHashMap<>();
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private ExecutorService senders;
+
+    @PostConstruct
+    void init() {
+        senders = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscriptions.forEach(subscription -> subscription.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("blog.live.subscriptions", subscriptions, Set::size)
+                .description("Flux SSE de compteurs ouverts")
+                .register(registry);
+        Gauge.builder("blog.live.posts", byPost, Map::size)
+                .description("Posts suivis par au moins un flux SSE")
+                .register(registry);
+    }
+
+    /**
+     * Ouvre un flux pour ces posts ; la première trame de chaque post donne ses compteurs actuels.
+     */
+    public SseEmitter subscribe(List<Long> postIds) {
+        if (postIds == null || postIds.isEmpty()) {
+            throw new IllegalArgumentException("Paramètre ids requis");
+        }
+        Set<Long> ids = new LinkedHashSet<>(postIds);
+        if (ids.size() > maxPostsPerSubscription) {
+            throw new IllegalArgumentException("Trop de posts suivis (max " + maxPostsPerSubscription + ")");
+        }
+
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        Subscription subscription = new Subscription(emitter, ids);
+        emitter.onCompletion(() -> unsubscribe(subscription));
+        emitter.onError(e -> unsubscribe(subscription));
+
+        subscriptions.add(subscription);
+        for (Long id : ids) {
+            byPost.compute(id, (key, set) -> {
+                Set<Subscription> subscribers = set != null ? set : ConcurrentHashMap.newKeySet();
+                subscribers.add(subscription);
+                return subscribers;
+            });
+        }
+        for (PostCounters counters : loadCounters(new ArrayList<>(ids))) {
+            offer(subscription, counters.getPostId(), frame(counters));
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(PostLikeChangedEvent event) {
+        markDirty(event.getPostId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        markDirty(event.getPostId());
+    }
+
+    // Une requête et une sérialisation par post modifié dans la fenêtre, quel que soit le nombre d'abonnés
+    @Scheduled(fixedDelayString = "${application.live.coalesce-ms:500}")
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>();
+        for (Long id : dirty) {
+            // Une modification arrivée après ce retrait sera lue au prochain passage
+            if (dirty.remove(id)) {
+                ids.add(id);
+            }
+        }
+        for (PostCounters counters : loadCounters(ids)) {
+            Set<Subscription> subscribers = byPost.get(counters.getPostId());
+            if (subscribers == null) {
+                continue;
+            }
+            Set<ResponseBodyEmitter.DataWithMediaType> frame = frame(counters);
+            for (Subscription subscription : subscribers) {
+                offer(subscription, counters.getPostId(), frame);
+            }
+        }
+    }
+
+    // Garde les connexions ouvertes derrière les proxies et détecte les clients partis
+    @Scheduled(fixedDelayString = "${application.live.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            offer(subscription, HEARTBEAT_KEY, HEARTBEAT);
+        }
+    }
+
+    private void markDirty(Long postId) {
+        if (byPost.containsKey(postId)) {
+            dirty.add(postId);
+        }
+    }
+
+    private List<PostCounters> loadCounters(List<Long> ids) {
+        List<PostCounters> counters = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += QUERY_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + QUERY_BATCH_SIZE));
+            for (Object[] row : postRepository.findCountersByIdIn(batch)) {
+                Long postId = (Long) row[0];
+                counters.add(new PostCounters(postId,
+                        likeCounterService.currentLikes(postId, (Integer) row[1]), (Integer) row[2]));
+            }
+        }
+        return counters;
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> frame(PostCounters counters) {
+        String event = "event:counters\ndata:" + jsonMapper.writeValueAsString(counters) + "\n\n";
+        return frame(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Octets déjà encodés : envoyés tels quels (ByteArrayHttpMessageConverter) à chaque abonné
+    private static Set<ResponseBodyEmitter.DataWithMediaType> frame(byte[] bytes) {
+        return Set.of(new ResponseBodyEmitter.DataWithMediaType(bytes, EVENT_STREAM));
+    }
+
+    private void offer(Subscription subscription, long key, Set<ResponseBodyEmitter.DataWithMediaType> frame) {
+        subscription.pending.put(key, frame);
+        if (!subscription.closed && subscription.draining.compareAndSet(false, true)) {
+            senders.execute(() -> drain(subscription));
+        }
+    }
+
+    // Un seul envoi en cours par abonné : les trames d'un même post restent dans l'ordre
+    private void drain(Subscription subscription) {
+        try {
+            while (!subscription.closed) {
+                for (Long key : subscription.pending.keySet()) {
+                    Set<ResponseBodyEmitter.DataWithMediaType> frame = subscription.pending.remove(key);
+                    if (frame != null) {
+                        subscription.emitter.send(frame);
+                    }
+                }
+                subscription.draining.set(false);
+                if (subscription.pending.isEmpty() || !subscription.draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client parti ou emitter déjà terminé : le conteneur clôt la requête de lui-même
+            unsubscribe(subscription);
+        }
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscription.closed = true;
+        subscription.pending.clear();
+        if (!subscriptions.remove(subscription)) {
+            return;
+        }
+        for (Long id : subscription.postIds) {
+            byPost.computeIfPresent(id, (key, set) -> {
+                set.remove(subscription);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    private static final class Subscription {
+        private final SseEmitter emitter;
+        private final Set<Long> postIds;
+        // Dernière trame non envoyée par post (et heartbeat)
+        private final Map<Long, Set<ResponseBodyEmitter.DataWithMediaType>> pending = new ConcurrentHashMap<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        private Subscription(SseEmitter emitter, Set<Long> postIds) {
+            this.emitter = emitter;
+            this.postIds = postIds;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.CategoryCount;
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.repository.CategoryStatRepository;
+import ma.blogguer.blog.util.CacheLoads;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Catégories : compteurs de posts matérialisés dans category_stats et
+ * première page de chaque catégorie en cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostCategoryService implements MeterBinder {
+
+    // Clé des compteurs en attente dans les ressources de la transaction courante
+    private static final Object PENDING_COUNTS = new Object();
+
+    private static final Logger log = LoggerFactory.getLogger(PostCategoryService.class);
+
+    private final CategoryStatRepository categoryStatRepository;
+
+    @Value("${application.categories.first-page-cache.max-categories:1000}")
+    private long maxCategories;
+
+    // Court : les likes et commentaires des résumés en cache vieillissent
+    @Value("${application.categories.first-page-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+
+    private AsyncCache<String, List<PostSummary>> firstPages;
+
+    @PostConstruct
+    void init() {
+        firstPages = Caffeine.newBuilder()
+                .maximumSize(maxCategories)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, firstPages, "category-first-page");
+    }
+
+    public List<CategoryCount> getCategories() {
+        return categoryStatRepository.findAllByOrderByPostCountDescCategoryAsc().stream()
+                .map(stat -> CategoryCount.builder().category(stat.getCategory()).count(stat.getPostCount()).build())
+                .toList();
+    }
+
+    /**
+     * Tête de la catégorie (les plus récents d'abord), chargée par {@code loader} en cas d'absence.
+     * Une invalidation pendant le chargement retire la future : le résultat n'est pas conservé.
+     */
+    public List<PostSummary> firstPage(String category, Function<String, List<PostSummary>> loader) {
+        return CacheLoads.getOrLoad(firstPages, category, loader);
+    }
+
+    // Dans la transaction de création : le compteur et le post sont validés ensemble.
+    // Les créations d'une même transaction sont cumulées par catégorie
+    // et appliquées juste avant le commit : un UPDATE par catégorie, pas un par post.
+    @EventListener
+    public void countPost(PostCreatedEvent event) {
+        if (event.getCategory() == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            categoryStatRepository.increment(event.getCategory());
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Integer> pending = (Map<String, Integer>) TransactionSynchronizationManager.getResource(PENDING_COUNTS);
+        if (pending == null) {
+            Map<String, Integer> counts = new HashMap<>();
+            TransactionSynchronizationManager.bindResource(PENDING_COUNTS, counts);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    counts.forEach(categoryStatRepository::add);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(PENDING_COUNTS);
+                }
+            });
+            pending = counts;
+        }
+        pending.merge(event.getCategory(), 1, Integer::sum);
+    }
+
+    // Lot importé, dans sa transaction : un upsert par catégorie du lot
+    @EventListener
+    public void countPosts(PostsImportedEvent event) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (PostCreatedEvent post : event.getPosts()) {
+            if (post.getCategory() != null) {
+                counts.merge(post.getCategory(), 1, Integer::sum);
+            }
+        }
+        counts.forEach(categoryStatRepository::add);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictFirstPage(PostCreatedEvent event) {
+        if (event.getCategory() != null) {
+            firstPages.synchronous().invalidate(event.getCategory());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void evictFirstPages(PostsImportedEvent event) {
+        event.getPosts().stream()
+                .map(PostCreatedEvent::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(firstPages.synchronous()::invalidate);
+    }
+
+    // Posts antérieurs aux compteurs : un seul COUNT(*) groupé, au premier démarrage
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillCounters() {
+        if (categoryStatRepository.count() == 0) {
+            int categories = categoryStatRepository.backfill();
+            if (categories > 0) {
+                log.info("Compteurs de catégories initialisés: {} catégories", categories);
+            }
+        }
+    }
+}
@@ -0,0 +1,278 @@
+package ma.blogguer.blog.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.CachedUser;
+import ma.blogguer.blog.dto.PostImportLine;
+import ma.blogguer.blog.dto.PostImportReport;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.util.TextStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Import en masse de posts depuis un flux NDJSON (un objet PostImportLine par ligne).
+ *
+ * Le flux est lu ligne à ligne et traité par lots de batch-size posts : au plus deux lots
+ * sont en mémoire quelle que soit la taille du fichier. Pendant qu'un lot est écrit en
+ * base, le temps de lecture du suivant est calculé en parallèle (TextStats, un thread
+ * par cœur). Chaque lot est une transaction : posts et tags en batch JDBC, puis un seul
+ * PostsImportedEvent pour les index, compteurs et caches (une invalidation du fil par lot,
+ * pas une par post). Un lot refusé par la base, ou dont les ids générés ne correspondent
+ * pas, est rejoué post par post pour isoler les lignes fautives.
+ *
+ * Sous MySQL, Connector/J n'envoie un batch en une seule requête multi-lignes qu'avec
+ * rewriteBatchedStatements=true dans l'URL JDBC (les ids générés restent renvoyés) ;
+ * sans cette option, chaque post du lot fait un aller-retour.
+ *
+ * La progression (après chaque lot) et les lignes rejetées sont écrites au fil de l'eau
+ * dans la réponse, en NDJSON (PostImportReport).
+ */
+@Service
+@RequiredArgsConstructor
+public class PostImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostImportService.class);
+
+    private static final int MAX_TITLE_LENGTH = 255;
+    private static final int MAX_RESUME_LENGTH = 500;
+
+    private final PostRepository postRepository;
+    private final UserRepository userRepository;
+    private final UserLookupCache userLookupCache;
+    private final JsonMapper jsonMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.import.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${application.import.stats-threads:0}")
+    private int statsThreads;
+
+    private ExecutorService statsPool;
+
+    @PostConstruct
+    void init() {
+        if (statsThreads <= 0) {
+            statsThreads = Runtime.getRuntime().availableProcessors();
+        }
+        AtomicInteger threadIds = new AtomicInteger();
+        statsPool = Executors.newFixedThreadPool(statsThreads, runnable -> {
+            Thread thread = new Thread(runnable, "post-import-stats-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        statsPool.shutdown();
+    }
+
+    public PostImportReport importNdjson(InputStream body, String importerEmail, OutputStream out) throws IOException {
+        long start = System.currentTimeMillis();
+        Long importerId = userLookupCache.getByEmail(importerEmail).getId();
+        Progress progress = new Progress(out);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        List<ImportedLine> batch = new ArrayList<>(batchSize);
+        CompletableFuture<List<ImportedLine>> inFlight = null;
+        String text;
+        while ((text = reader.readLine()) != null) {
+            progress.lines++;
+            if (text.isBlank()) {
+                continue;
+            }
+            try {
+                batch.add(parse(text, progress.lines, importerId));
+            } catch (JacksonException | IllegalArgumentException e) {
+                progress.error(progress.lines, e instanceof JacksonException ? "JSON invalide" : e.getMessage());
+            }
+            if (batch.size() == batchSize) {
+                CompletableFuture<List<ImportedLine>> next = withReadTimes(batch);
+                if (inFlight != null) {
+                    write(inFlight.join(), progress);
+                }
+                inFlight = next;
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        CompletableFuture<List<ImportedLine>> last = withReadTimes(batch);
+        if (inFlight != null) {
+            write(inFlight.join(), progress);
+        }
+        write(last.join(), progress);
+
+        PostImportReport done = progress.report("done");
+        done.setDurationMs(System.currentTimeMillis() - start);
+        progress.send(done);
+        log.info("Import de posts terminé: {} lignes, {} importés, {} rejetés en {} ms",
+                done.getLines(), done.getImported(), done.getFailed(), done.getDurationMs());
+        return done;
+    }
+
+    private ImportedLine parse(String text, int lineNumber, Long importerId) {
+        PostImportLine line = jsonMapper.readValue(text, PostImportLine.class);
+        if (line.getTitle() == null || line.getTitle().isBlank()) {
+            throw new IllegalArgumentException("title manquant");
+        }
+        if (line.getContent() == null || line.getContent().isBlank()) {
+            throw new IllegalArgumentException("content manquant");
+        }
+        if (line.getTitle().length() > MAX_TITLE_LENGTH) {
+            throw new IllegalArgumentException("title trop long (max " + MAX_TITLE_LENGTH + ")");
+        }
+        if (line.getResume() != null && line.getResume().length() > MAX_RESUME_LENGTH) {
+            throw new IllegalArgumentException("resume trop long (max " + MAX_RESUME_LENGTH + ")");
+        }
+        Long authorId = importerId;
+        if (line.getAuthorEmail() != null && !line.getAuthorEmail().isBlank()) {
+            authorId = userLookupCache.findByEmail(line.getAuthorEmail())
+                    .map(CachedUser::getId)
+                    .orElseThrow(() -> new IllegalArgumentException("Auteur inconnu: " + line.getAuthorEmail()));
+        }
+        return new ImportedLine(lineNumber, line, authorId);
+    }
+
+    // Étape parallèle : le lot est découpé en un morceau par thread
+    private CompletableFuture<List<ImportedLine>> withReadTimes(List<ImportedLine> batch) {
+        int chunkSize = Math.max(1, (batch.size() + statsThreads - 1) / statsThreads);
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < batch.size(); from += chunkSize) {
+            List<ImportedLine> chunk = batch.subList(from, Math.min(batch.size(), from + chunkSize));
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (ImportedLine imported : chunk) {
+                    imported.readTime = TextStats.of(imported.line.getContent()).getReadTimeMinutes();
+                }
+            }, statsPool));
+        }
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0])).thenApply(ignored -> batch);
+    }
+
+    private void write(List<ImportedLine> batch, Progress progress) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            insert(batch);
+            progress.imported += batch.size();
+        } catch (DataAccessException | IllegalStateException e) {
+            // Transaction du lot annulée : rien n'a été écrit, le rejeu ligne à ligne est sûr
+            log.warn("Lot d'import refusé ({} posts), reprise ligne à ligne: {}", batch.size(), e.getMessage());
+            for (ImportedLine imported : batch) {
+                try {
+                    insert(List.of(imported));
+                    progress.imported++;
+                } catch (DataAccessException | IllegalStateException lineError) {
+                    progress.error(imported.lineNumber, "Refusé par la base: " + reason(lineError));
+                }
+            }
+        }
+        progress.send(progress.report("progress"));
+    }
+
+    private void insert(List<ImportedLine> batch) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Post> posts = new ArrayList<>(batch.size());
+            for (ImportedLine imported : batch) {
+                PostImportLine line = imported.line;
+                LocalDateTime createdAt = line.getCreatedAt() != null ? line.getCreatedAt() : now;
+                posts.add(Post.builder()
+                        .title(line.getTitle())
+                        .content(line.getContent())
+                        .resume(line.getResume())
+                        .category(line.getCategory())
+                        .image(line.getImage())
+                        .tags(line.getTags())
+                        .readTime(imported.readTime)
+                        .author(userRepository.getReferenceById(imported.authorId))
+                        .createdAt(createdAt)
+                        .updatedAt(createdAt)
+                        .build());
+            }
+            postRepository.insertAll(posts);
+            List<PostCreatedEvent> created = new ArrayList<>(posts.size());
+            for (int i = 0; i < posts.size(); i++) {
+                Post post = posts.get(i);
+                created.add(new PostCreatedEvent(post.getId(), batch.get(i).authorId,
+                        post.getTitle(), post.getResume(), post.getContent(), post.getCategory(), post.getTags(),
+                        post.getCreatedAt()));
+            }
+            eventPublisher.publishEvent(new PostsImportedEvent(created));
+        });
+    }
+
+    private static String reason(RuntimeException e) {
+        return e instanceof DataAccessException dataAccess
+                ? dataAccess.getMostSpecificCause().getMessage()
+                : e.getMessage();
+    }
+
+    private static final class ImportedLine {
+        private final int lineNumber;
+        private final PostImportLine line;
+        private final Long authorId;
+        // Écrit par l'étape parallèle, lu après son join
+        private int readTime;
+
+        private ImportedLine(int lineNumber, PostImportLine line, Long authorId) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+            this.authorId = authorId;
+        }
+    }
+
+    private final class Progress {
+        private final OutputStream out;
+        private int lines;
+        private int imported;
+        private int failed;
+
+        private Progress(OutputStream out) {
+            this.out = out;
+        }
+
+        private void error(int line, String message) throws IOException {
+            failed++;
+            send(PostImportReport.builder().type("error").line(line).message(message).build());
+        }
+
+        private PostImportReport report(String type) {
+            return PostImportReport.builder().type(type).lines(lines).imported(imported).failed(failed).build();
+        }
+
+        private void send(PostImportReport report) throws IOException {
+            out.write(jsonMapper.writeValueAsBytes(report));
+            out.write('\n');
+            out.flush();
+        }
+    }
+}
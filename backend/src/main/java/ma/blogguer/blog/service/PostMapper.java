@@ -0,0 +1,94 @@
+package ma.blogguer.blog.service;
+
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.AuthorDTO;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Conversions Post / PostSummary -> PostResponse.
+ * Ces méthodes sont appelées une fois par post de chaque page : elles ne loguent rien,
+ * le résumé de la requête est écrit par RequestLoggingFilter.
+ */
+@Component
+@RequiredArgsConstructor
+public class PostMapper {
+
+    private final LikeCounterService likeCounterService;
+
+    public PostResponse toResponse(PostSummary summary, List<String> tags, boolean likedByCurrentUser) {
+        return PostResponse.builder()
+                .id(summary.getId())
+                .title(summary.getTitle())
+                .excerpt(summary.getResume()) // resume -> excerpt
+                .category(summary.getCategory())
+                .image(summary.getImage())
+                .readTime(summary.getReadTime())
+                .likes(likeCounterService.currentLikes(summary.getId(), summary.getLikes()))
+                .comments(summary.getCommentsCount()) // commentsCount -> comments
+                .likedByCurrentUser(likedByCurrentUser)
+                .tags(tags)
+                .author(toAuthorDTO(summary))
+                .date(summary.getCreatedAt()) // createdAt -> date
+                .updatedAt(summary.getUpdatedAt())
+                .build();
+    }
+
+    public PostResponse toResponse(Post post, AuthorDTO author, boolean likedByCurrentUser) {
+        return PostResponse.builder()
+                .id(post.getId())
+                .title(post.getTitle())
+                .content(post.getContent())
+                .excerpt(post.getResume()) // resume -> excerpt
+                .category(post.getCategory())
+                .image(post.getImage())
+                .readTime(post.getReadTime())
+                .likes(likeCounterService.currentLikes(post.getId(), post.getLikes()))
+                .comments(post.getCommentsCount()) // commentsCount -> comments
+                .likedByCurrentUser(likedByCurrentUser)
+                .tags(post.getTags())
+                .author(author)
+                .date(post.getCreatedAt()) // createdAt -> date
+                .updatedAt(post.getUpdatedAt())
+                .build();
+    }
+
+    public AuthorDTO toAuthorDTO(PostSummary summary) {
+        if (summary.getAuthorId() == null) {
+            return unknownAuthor();
+        }
+        return AuthorDTO.builder()
+                .id(summary.getAuthorId())
+                .username(summary.getAuthorUsername())
+                .email(summary.getAuthorEmail())
+                .avatar(summary.getAuthorAvatar())
+                .build();
+    }
+
+    // Protection contre les posts sans auteur
+    public AuthorDTO toAuthorDTO(User user) {
+        if (user == null) {
+            return unknownAuthor();
+        }
+        return AuthorDTO.builder()
+                .id(user.getId())
+                .username(user.getDisplayUsername()) // Utilise le vrai username
+                .email(user.getEmail())
+                .avatar(user.getAvatar())
+                .build();
+    }
+
+    private AuthorDTO unknownAuthor() {
+        return AuthorDTO.builder()
+                .id(0L)
+                .username("Utilisateur inconnu")
+                .email("")
+                .avatar(null)
+                .build();
+    }
+}
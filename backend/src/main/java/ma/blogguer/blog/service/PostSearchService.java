@@ -0,0 +1,106 @@
+package ma.blogguer.blog.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.search.InvertedIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recherche plein texte sur les posts. L'index vit en mémoire : il est reconstruit
+ * depuis la base au démarrage puis enrichi à chaque création de post.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostSearchService.class);
+
+    private final PostRepository postRepository;
+
+    @Value("${application.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${application.search.rebuild-batch-size:500}")
+    private int rebuildBatchSize;
+
+    @Value("${application.search.max-prefix-expansions:50}")
+    private int maxPrefixExpansions;
+
+    private InvertedIndex index;
+
+    @PostConstruct
+    void init() {
+        index = new InvertedIndex(maxPrefixExpansions);
+    }
+
+    public InvertedIndex.SearchResult search(String query, int offset, int limit) {
+        return index.search(query, offset, limit);
+    }
+
+    public int indexedPosts() {
+        return index.size();
+    }
+
+    // Après commit uniquement : un post annulé ne doit pas apparaître dans les résultats
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        index.index(event.getPostId(), event.getTitle(), event.getResume(), event.getContent(), event.getTags());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsImported(PostsImportedEvent event) {
+        event.getPosts().forEach(this::onPostCreated);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Relit tous les posts par lots (pagination sur l'id) et les indexe. Les créations
+     * concurrentes restent correctes : indexer deux fois un post remplace la première version.
+     */
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int total = 0;
+        List<Object[]> rows;
+        do {
+            rows = postRepository.findSearchableAfter(afterId, Limit.of(rebuildBatchSize));
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Long> ids = new ArrayList<>(rows.size());
+            rows.forEach(row -> ids.add((Long) row[0]));
+            Map<Long, List<String>> tagsByPost = new HashMap<>();
+            for (Object[] tag : postRepository.findTagsByPostIds(ids)) {
+                tagsByPost.computeIfAbsent((Long) tag[0], id -> new ArrayList<>()).add((String) tag[1]);
+            }
+            for (Object[] row : rows) {
+                Long id = (Long) row[0];
+                index.index(id, (String) row[1], (String) row[2], (String) row[3], tagsByPost.get(id));
+            }
+            afterId = ids.get(ids.size() - 1);
+            total += rows.size();
+        } while (rows.size() == rebuildBatchSize);
+        log.info("Index de recherche reconstruit: {} posts en {} ms", total, System.currentTimeMillis() - start);
+    }
+}
@@ -1,22 +1,38 @@
 package ma.blogguer.blog.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import ma.blogguer.blog.dto.AuthorDTO;
+import ma.blogguer.blog.dto.CachedUser;
+import ma.blogguer.blog.dto.CategoryCount;
+import ma.blogguer.blog.dto.CursorPage;
 import ma.blogguer.blog.dto.PostRequest;
 import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.dto.PostSummary;
+import ma.blogguer.blog.dto.TagCount;
 import ma.blogguer.blog.entity.Post;
-import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.PostCreatedEvent;
 import ma.blogguer.blog.repository.PostRepository;
 import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.search.InvertedIndex;
+import ma.blogguer.blog.search.TagIndex;
+import ma.blogguer.blog.util.LongHashSet;
+import ma.blogguer.blog.util.TextStats;
+import ma.blogguer.blog.util.RequestMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @Service
+@Timed("blog.service")
 @RequiredArgsConstructor
 public class PostService {
 
@@ -25,11 +41,26 @@ public class PostService {
     private final PostRepository postRepository;
     private final UserRepository userRepository;
     private final LikeService likeService;
+    private final PostMapper postMapper;
+    private final UserLookupCache userLookupCache;
+    private final PostSearchService postSearchService;
+    private final PostTagService postTagService;
+    private final PostCategoryService postCategoryService;
+    private final PostTrendingService postTrendingService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${application.feed.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${application.feed.max-page-size:50}")
+    private int maxPageSize;
+
+    @Value("${application.search.max-results:1000}")
+    private int maxSearchResults;
 
     @Transactional
     public PostResponse createPost(PostRequest request, String email) {
-        User author = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        CachedUser author = userLookupCache.getByEmail(email);
 
         Post post = Post.builder()
                 .title(request.getTitle())
@@ -38,146 +69,275 @@ public class PostService {
                 .category(request.getCategory())
                 .image(request.getImage())
                 .tags(request.getTags())
-                .author(author)
-                .readTime(calculateReadTime(request.getContent()))
+                .author(userRepository.getReferenceById(author.getId()))
+                .readTime(TextStats.of(request.getContent()).getReadTimeMinutes())
                 .build();
 
         Post savedPost = postRepository.save(post);
-        return toPostResponse(savedPost, email);
+        eventPublisher.publishEvent(new PostCreatedEvent(savedPost.getId(), author.getId(), savedPost.getTitle(),
+                savedPost.getResume(), savedPost.getContent(), savedPost.getCategory(), savedPost.getTags(),
+                savedPost.getCreatedAt()));
+        // Un post qui vient d'être créé n'est liké par personne
+        return postMapper.toResponse(savedPost, author.toAuthorDTO(), false);
     }
 
     public List<PostResponse> getAllPosts() {
         return getAllPosts(null);
     }
 
+    // Ancien point d'entrée conservé : renvoie la première page du fil
     @Transactional(readOnly = true)
     public List<PostResponse> getAllPosts(String userEmail) {
-        log.info("🔍 getAllPosts appelé avec userEmail: {}", userEmail);
+        return getFeed(null, defaultPageSize, userEmail).getItems();
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getFeed(String cursor, Integer size, String userEmail) {
+        int pageSize = resolvePageSize(size);
+        // On lit un élément de plus pour savoir s'il reste une page
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<PostSummary> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postRepository.findFeed(limit);
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            posts = postRepository.findFeedAfter(after.getCreatedAt(), after.getId(), limit);
+        }
+        return toCursorPage(posts, pageSize, userEmail);
+    }
+
+    /**
+     * Fil d'une catégorie. La première page vient du cache de PostCategoryService,
+     * qui garde les max-page-size + 1 posts les plus récents de la catégorie.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getCategoryFeed(String category, String cursor, Integer size, String userEmail) {
+        int pageSize = resolvePageSize(size);
+
+        List<PostSummary> posts;
+        if (cursor == null || cursor.isBlank()) {
+            posts = postCategoryService.firstPage(category,
+                    c -> List.copyOf(postRepository.findCategoryFeed(c, Limit.of(maxPageSize + 1))));
+            posts = posts.subList(0, Math.min(posts.size(), pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            posts = postRepository.findCategoryFeedAfter(category, after.getCreatedAt(), after.getId(),
+                    Limit.of(pageSize + 1));
+        }
+        return toCursorPage(posts, pageSize, userEmail);
+    }
+
+    public List<CategoryCount> getCategories() {
+        return postCategoryService.getCategories();
+    }
+
+    // posts contient au plus pageSize + 1 éléments, le dernier ne servant qu'à détecter la suite
+    private CursorPage<PostResponse> toCursorPage(List<PostSummary> posts, int pageSize, String userEmail) {
+        boolean hasMore = posts.size() > pageSize;
+        if (hasMore) {
+            posts = posts.subList(0, pageSize);
+        }
+
+        List<PostResponse> items = toSummaryResponses(posts, userEmail);
+
+        String nextCursor = null;
+        if (hasMore) {
+            PostSummary last = posts.get(posts.size() - 1);
+            nextCursor = new PageCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CursorPage.<PostResponse>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Recherche plein texte classée par pertinence. Le curseur est le rang du premier
+     * résultat de la page ; au-delà de application.search.max-results la recherche s'arrête.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> searchPosts(String query, String cursor, Integer size, String userEmail) {
+        int pageSize = resolvePageSize(size);
+        int offset = decodeSearchCursor(cursor);
+        if (query == null || query.isBlank() || offset >= maxSearchResults) {
+            return CursorPage.<PostResponse>builder().items(new ArrayList<>()).hasMore(false).build();
+        }
+
+        InvertedIndex.SearchResult result = postSearchService.search(query, offset, pageSize);
+        List<PostSummary> posts = findSummariesInOrder(result.getPostIds());
+
+        boolean hasMore = result.isHasMore() && offset + pageSize < maxSearchResults;
+        return CursorPage.<PostResponse>builder()
+                .items(toSummaryResponses(posts, userEmail))
+                .nextCursor(hasMore ? String.valueOf(offset + pageSize) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Fil filtré par tags, dans l'ordre du fil principal (date de création, puis id).
+     * Le curseur a le même format que celui du fil principal.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PostResponse> getTagFeed(List<String> tags, String match, String cursor, Integer size,
+                                               String userEmail) {
+        int pageSize = resolvePageSize(size);
+        TagIndex.Posting before = null;
+        if (cursor != null && !cursor.isBlank()) {
+            PageCursor after = PageCursor.decode(cursor);
+            before = new TagIndex.Posting(TagIndex.postedAt(after.getCreatedAt()), after.getId());
+        }
+        List<TagIndex.Posting> postings = postTagService.findPosts(tags, parseMatch(match), before, pageSize + 1);
+
+        boolean hasMore = postings.size() > pageSize;
+        if (hasMore) {
+            postings = postings.subList(0, pageSize);
+        }
+        List<PostSummary> posts = findSummariesInOrder(postings.stream().map(TagIndex.Posting::getPostId).toList());
+        // Curseur tiré de l'index (et non de la base) : même ordre (date de création, id) que le fil
+        String nextCursor = null;
+        if (hasMore) {
+            TagIndex.Posting last = postings.get(postings.size() - 1);
+            nextCursor = new PageCursor(TagIndex.toDateTime(last.getPostedAt()), last.getPostId()).encode();
+        }
+        return CursorPage.<PostResponse>builder()
+                .items(toSummaryResponses(posts, userEmail))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    public List<TagCount> getPopularTags(Integer limit) {
+        return postTagService.popularTags(limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize));
+    }
+
+    /**
+     * Posts « tendance » : ids lus dans le classement en mémoire, puis une seule requête
+     * de résumés pour la page demandée (aucun parcours des likes ou commentaires).
+     */
+    @Transactional(readOnly = true)
+    public List<PostResponse> getTrending(Integer limit, String userEmail) {
+        int size = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        List<PostSummary> posts = findSummariesInOrder(postTrendingService.trendingPostIds(size));
+        return toSummaryResponses(posts, userEmail);
+    }
+
+    private TagIndex.Match parseMatch(String match) {
+        if (match == null || match.isBlank() || match.equalsIgnoreCase("any")) {
+            return TagIndex.Match.ANY;
+        }
+        if (match.equalsIgnoreCase("all")) {
+            return TagIndex.Match.ALL;
+        }
+        throw new IllegalArgumentException("Paramètre match invalide (all ou any)");
+    }
+
+    // Résumés dans l'ordre des ids donnés ; un post absent de la base est ignoré
+    private List<PostSummary> findSummariesInOrder(List<Long> ids) {
+        List<PostSummary> posts = new ArrayList<>(ids.size());
+        if (ids.isEmpty()) {
+            return posts;
+        }
+        Map<Long, PostSummary> byId = new HashMap<>();
+        postRepository.findSummariesByIdIn(ids).forEach(summary -> byId.put(summary.getId(), summary));
+        for (Long id : ids) {
+            PostSummary summary = byId.get(id);
+            if (summary != null) {
+                posts.add(summary);
+            }
+        }
+        return posts;
+    }
+
+    private int decodeSearchCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
         try {
-            List<Post> posts = postRepository.findByOrderByCreatedAtDesc();
-            log.info("✅ {} posts trouvés dans la base de données", posts.size());
-            
-            List<PostResponse> responses = posts.stream()
-                    .map(post -> {
-                        try {
-                            log.debug("📝 Conversion du post ID: {} - Titre: {}", post.getId(), post.getTitle());
-                            return toPostResponse(post, userEmail);
-                        } catch (Exception e) {
-                            log.error("❌ ERREUR lors de la conversion du post ID: {} - {}", post.getId(), e.getMessage(), e);
-                            throw e;
-                        }
-                    })
-                    .collect(Collectors.toList());
-            
-            log.info("✅ {} posts convertis avec succès", responses.size());
-            return responses;
-        } catch (Exception e) {
-            log.error("❌ ERREUR CRITIQUE dans getAllPosts: {}", e.getMessage(), e);
-            throw e;
+            int offset = Integer.parseInt(cursor);
+            if (offset < 0) {
+                throw new IllegalArgumentException("Curseur invalide");
+            }
+            return offset;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Curseur invalide", e);
         }
     }
 
+    private int resolvePageSize(Integer size) {
+        if (size == null || size <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(size, maxPageSize);
+    }
+
     public PostResponse getPostById(Long id) {
         return getPostById(id, null);
     }
 
     @Transactional(readOnly = true)
     public PostResponse getPostById(Long id, String userEmail) {
-        Post post = postRepository.findById(id)
+        Post post = postRepository.findDetailedById(id)
                 .orElseThrow(() -> new RuntimeException("Post not found"));
         return toPostResponse(post, userEmail);
     }
 
     @Transactional(readOnly = true)
     public List<PostResponse> getMyPosts(String email) {
-        User user = userRepository.findByEmail(email)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-        return postRepository.findByAuthorId(user.getId())
-                .stream()
-                .map(post -> toPostResponse(post, email))
-                .collect(Collectors.toList());
-    }
-
-    private int calculateReadTime(String content) {
-        if (content == null || content.isEmpty())
-            return 0;
-        int wordCount = content.split("\\s+").length;
-        return (int) Math.ceil(wordCount / 200.0); // 200 words per minute
+        CachedUser user = userLookupCache.getByEmail(email);
+        return toSummaryResponses(postRepository.findSummariesByAuthorId(user.getId()), email);
     }
 
-    // Conversion methods
-    private PostResponse toPostResponse(Post post, String userEmail) {
-        log.debug("🔄 toPostResponse - Post ID: {}, UserEmail: {}", post.getId(), userEmail);
-        
-        try {
-            // ✅ Simplification : si pas d'email, pas de like possible
-            boolean likedByCurrentUser = false;
-            if (userEmail != null && !userEmail.isEmpty()) {
-                try {
-                    log.debug("💙 Vérification like pour post {} par user {}", post.getId(), userEmail);
-                    likedByCurrentUser = likeService.hasUserLiked(post.getId(), userEmail);
-                } catch (Exception e) {
-                    log.warn("⚠️ Erreur lors de la vérification du like: {}", e.getMessage());
-                    likedByCurrentUser = false;
-                }
-            }
-
-            log.debug("👤 Récupération de l'auteur pour post {}", post.getId());
-            User author = post.getAuthor();
-            if (author == null) {
-                log.warn("⚠️ Post {} n'a pas d'auteur!", post.getId());
-            } else {
-                log.debug("✅ Auteur trouvé: {} (ID: {})", author.getDisplayUsername(), author.getId());
-            }
+    // Conversion methods (voir PostMapper)
 
-            log.debug("🏗️ Construction de PostResponse pour post {}", post.getId());
-            return PostResponse.builder()
-                    .id(post.getId())
-                    .title(post.getTitle())
-                    .content(post.getContent())
-                    .excerpt(post.getResume()) // resume -> excerpt
-                    .category(post.getCategory())
-                    .image(post.getImage())
-                    .readTime(post.getReadTime())
-                    .likes(post.getLikes())
-                    .comments(post.getCommentsCount()) // commentsCount -> comments
-                    .likedByCurrentUser(likedByCurrentUser)
-                    .tags(post.getTags())
-                    .author(toAuthorDTO(post.getAuthor()))
-                    .date(post.getCreatedAt()) // createdAt -> date
-                    .updatedAt(post.getUpdatedAt())
-                    .build();
-        } catch (Exception e) {
-            log.error("❌ ERREUR dans toPostResponse pour post {}: {}", post.getId(), e.getMessage(), e);
-            throw new RuntimeException("Erreur lors de la conversion du post " + post.getId(), e);
+    // Listes : le contenu complet n'est jamais chargé, tags et likes sont lus en une requête chacun
+    private List<PostResponse> toSummaryResponses(List<PostSummary> summaries, String userEmail) {
+        if (summaries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        RequestMetrics.addRows(summaries.size());
+        List<Long> postIds = summaries.stream().map(PostSummary::getId).toList();
+        Map<Long, List<String>> tagsByPost = loadTags(postIds);
+        LongHashSet likedPostIds = loadLikedPostIds(postIds, userEmail);
+        List<PostResponse> responses = new ArrayList<>(summaries.size());
+        for (PostSummary summary : summaries) {
+            responses.add(postMapper.toResponse(summary, tagsByPost.getOrDefault(summary.getId(), List.of()),
+                    likedPostIds.contains(summary.getId())));
         }
+        return responses;
     }
 
-    private AuthorDTO toAuthorDTO(User user) {
-        log.debug("👤 toAuthorDTO - User: {}", user != null ? user.getId() : "null");
-        
-        // ✅ Protection contre les auteurs null
-        if (user == null) {
-            log.warn("⚠️ Auteur null détecté, utilisation d'un auteur par défaut");
-            return AuthorDTO.builder()
-                    .id(0L)
-                    .username("Utilisateur inconnu")
-                    .email("")
-                    .avatar(null)
-                    .build();
+    private Map<Long, List<String>> loadTags(List<Long> postIds) {
+        Map<Long, List<String>> tagsByPost = new HashMap<>();
+        for (Object[] row : postRepository.findTagsByPostIds(postIds)) {
+            tagsByPost.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
         }
-        
+        return tagsByPost;
+    }
+
+    private LongHashSet loadLikedPostIds(List<Long> postIds, String userEmail) {
         try {
-            log.debug("✅ Création AuthorDTO pour user {} - {}", user.getId(), user.getDisplayUsername());
-            return AuthorDTO.builder()
-                    .id(user.getId())
-                    .username(user.getDisplayUsername()) // Utilise le vrai username
-                    .email(user.getEmail())
-                    .avatar(user.getAvatar())
-                    .build();
+            return likeService.findLikedPostIds(userEmail, postIds);
         } catch (Exception e) {
-            log.error("❌ ERREUR dans toAuthorDTO pour user {}: {}", user.getId(), e.getMessage(), e);
-            throw new RuntimeException("Erreur lors de la création de l'AuthorDTO", e);
+            log.warn("Erreur lors de la vérification des likes: {}", e.getMessage());
+            return new LongHashSet();
+        }
+    }
+
+    private PostResponse toPostResponse(Post post, String userEmail) {
+        RequestMetrics.addRows(1);
+        // Si pas d'email, pas de like possible
+        boolean likedByCurrentUser = false;
+        if (userEmail != null && !userEmail.isEmpty()) {
+            try {
+                likedByCurrentUser = likeService.hasUserLiked(post.getId(), userEmail);
+            } catch (Exception e) {
+                log.warn("Erreur lors de la vérification du like du post {}: {}", post.getId(), e.getMessage());
+            }
         }
+        return postMapper.toResponse(post, postMapper.toAuthorDTO(post.getAuthor()), likedByCurrentUser);
     }
 }
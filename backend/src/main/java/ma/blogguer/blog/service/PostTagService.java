@@ -0,0 +1,89 @@
+package ma.blogguer.blog.service;
+
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.TagCount;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.search.TagIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Index des tags en mémoire : filtre du fil par tag et tags populaires.
+ * Reconstruit au démarrage puis tenu à jour à chaque création de post.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTagService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostTagService.class);
+
+    private final PostRepository postRepository;
+    private final TagIndex index = new TagIndex();
+
+    @Value("${application.tags.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${application.tags.rebuild-batch-size:1000}")
+    private int rebuildBatchSize;
+
+    public List<TagIndex.Posting> findPosts(Collection<String> tags, TagIndex.Match match,
+                                            TagIndex.Posting before, int limit) {
+        return index.find(tags, match, before, limit);
+    }
+
+    public List<TagCount> popularTags(int limit) {
+        return index.popular(limit).stream()
+                .map(entry -> TagCount.builder().tag(entry.getKey()).count(entry.getValue()).build())
+                .toList();
+    }
+
+    // Après commit uniquement, comme l'index de recherche
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        LocalDateTime createdAt = event.getCreatedAt() != null ? event.getCreatedAt() : LocalDateTime.now();
+        index.add(event.getPostId(), TagIndex.postedAt(createdAt), event.getTags());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsImported(PostsImportedEvent event) {
+        event.getPosts().forEach(this::onPostCreated);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        long afterId = 0;
+        int total = 0;
+        List<Long> ids;
+        do {
+            ids = postRepository.findIdsAfter(afterId, Limit.of(rebuildBatchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Object[] row : postRepository.findDatedTagsByPostIds(ids)) {
+                index.add((Long) row[0], TagIndex.postedAt((LocalDateTime) row[1]), List.of((String) row[2]));
+            }
+            afterId = ids.get(ids.size() - 1);
+            total += ids.size();
+        } while (ids.size() == rebuildBatchSize);
+        log.info("Index des tags reconstruit: {} posts en {} ms", total, System.currentTimeMillis() - start);
+    }
+}
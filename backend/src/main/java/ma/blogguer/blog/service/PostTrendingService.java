@@ -0,0 +1,251 @@
+package ma.blogguer.blog.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.event.CommentChangedEvent;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostLikeChangedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.PostRepositoryCustom;
+import ma.blogguer.blog.search.TrendingIndex;
+import ma.blogguer.blog.util.LongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Fil « tendance » : score décroissant dans le temps (demi-vie configurable), alimenté
+ * par les créations de posts, likes et commentaires, sans requête à la lecture.
+ * L'index est reconstruit au démarrage puis périodiquement depuis la base (activité des
+ * window-hours dernières heures), ce qui corrige aussi les approximations des retraits.
+ */
+@Service
+@RequiredArgsConstructor
+public class PostTrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PostTrendingService.class);
+
+    private final PostRepository postRepository;
+
+    @Value("${application.trending.half-life-hours:24}")
+    private long halfLifeHours;
+
+    @Value("${application.trending.max-top:100}")
+    private int maxTop;
+
+    @Value("${application.trending.max-tracked:10000}")
+    private int maxTracked;
+
+    // Au-delà de quelques demi-vies, une interaction ne pèse plus rien
+    @Value("${application.trending.window-hours:168}")
+    private long windowHours;
+
+    @Value("${application.trending.post-weight:1.0}")
+    private double postWeight;
+
+    @Value("${application.trending.like-weight:1.0}")
+    private double likeWeight;
+
+    @Value("${application.trending.comment-weight:3.0}")
+    private double commentWeight;
+
+    @Value("${application.trending.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    private volatile TrendingIndex index;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Thread dédié : la reconstruction ne bloque pas l'unique thread partagé par les
+    // autres @Scheduled (écriture des likes, flux SSE, clés Google)
+    private ExecutorService rebuilder;
+    // Non null pendant une reconstruction, ouvert avant la requête : interactions à rejouer
+    // dans le nouvel index, sauf celles que la requête a déjà lues (voir replayPending)
+    private List<Interaction> pending;
+
+    @PostConstruct
+    void init() {
+        index = newIndex(System.currentTimeMillis());
+        rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "trending-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebuilder.shutdown();
+    }
+
+    public List<Long> trendingPostIds(int limit) {
+        long[] ids = index.top(limit);
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        apply(event.getPostId(), PostRepositoryCustom.Activity.POST, postWeight, createdAtMillis(event));
+    }
+
+    // Un lot importé : un seul passage par le verrou du classement
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPostsImported(PostsImportedEvent event) {
+        for (PostCreatedEvent post : event.getPosts()) {
+            apply(post.getPostId(), PostRepositoryCustom.Activity.POST, postWeight, createdAtMillis(post));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(PostLikeChangedEvent event) {
+        apply(event.getPostId(), PostRepositoryCustom.Activity.LIKE,
+                event.isLiked() ? likeWeight : -likeWeight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        apply(event.getPostId(), PostRepositoryCustom.Activity.COMMENT,
+                event.isAdded() ? commentWeight : -commentWeight, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${application.trending.rebuild-interval-ms:3600000}",
+            initialDelayString = "${application.trending.rebuild-interval-ms:3600000}")
+    public void scheduledRebuild() {
+        rebuilder.execute(() -> {
+            try {
+                rebuild();
+            } catch (RuntimeException e) {
+                log.error("Échec de la reconstruction du classement tendance: {}", e.getMessage());
+            }
+        });
+    }
+
+    public void rebuild() {
+        if (!rebuildLock.tryLock()) {
+            return; // une reconstruction est déjà en cours
+        }
+        try {
+            long start = System.currentTimeMillis();
+            TrendingIndex rebuilt = newIndex(start);
+            int[] rows = new int[1];
+            // Tampon ouvert avant la requête : une interaction validée pendant son exécution
+            // n'est pas perdue, quel que soit l'instant de l'instantané
+            long watermark;
+            synchronized (this) {
+                pending = new ArrayList<>();
+                watermark = System.currentTimeMillis();
+            }
+            LongHashSet postsRead = new LongHashSet();
+            Map<Long, int[]> readAfterWatermark = new HashMap<>();
+            postRepository.forEachActivitySince(LocalDateTime.now().minus(Duration.ofHours(windowHours)),
+                    (postId, activity, atMillis) -> {
+                        rebuilt.add(postId, weightOf(activity), atMillis);
+                        rows[0]++;
+                        if (activity == PostRepositoryCustom.Activity.POST) {
+                            postsRead.add(postId);
+                        } else if (atMillis >= watermark) {
+                            readAfterWatermark.computeIfAbsent(postId, id -> new int[2])[activity.ordinal() - 1]++;
+                        }
+                    });
+            synchronized (this) {
+                replayPending(rebuilt, postsRead, readAfterWatermark);
+                pending = null;
+                index = rebuilt;
+            }
+            log.info("Classement tendance reconstruit: {} interactions, {} posts en {} ms",
+                    rows[0], rebuilt.size(), System.currentTimeMillis() - start);
+        } finally {
+            // Requête en échec : on garde l'ancien index, sans laisser le tampon grossir
+            synchronized (this) {
+                pending = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rejoue le tampon sans compter deux fois ce que la requête a lu : une création de post
+     * est reconnue par son id, un like ou un commentaire ajouté par une ligne du même post
+     * datée d'après l'ouverture du tampon (chaque ligne n'en écarte qu'un). Les retraits
+     * sont toujours rejoués : leur ligne supprimée n'est plus lue.
+     */
+    private void replayPending(TrendingIndex rebuilt, LongHashSet postsRead, Map<Long, int[]> readAfterWatermark) {
+        for (Interaction interaction : pending) {
+            if (interaction.weight() > 0 && alreadyRead(interaction, postsRead, readAfterWatermark)) {
+                continue;
+            }
+            rebuilt.add(interaction.postId(), interaction.weight(), interaction.atMillis());
+        }
+    }
+
+    private static boolean alreadyRead(Interaction interaction, LongHashSet postsRead,
+                                       Map<Long, int[]> readAfterWatermark) {
+        if (interaction.activity() == PostRepositoryCustom.Activity.POST) {
+            return postsRead.contains(interaction.postId());
+        }
+        int[] counts = readAfterWatermark.get(interaction.postId());
+        int slot = interaction.activity().ordinal() - 1;
+        if (counts == null || counts[slot] == 0) {
+            return false;
+        }
+        counts[slot]--;
+        return true;
+    }
+
+    private synchronized void apply(long postId, PostRepositoryCustom.Activity activity, double weight, long atMillis) {
+        index.add(postId, weight, atMillis);
+        if (pending != null) {
+            pending.add(new Interaction(postId, activity, weight, atMillis));
+        }
+    }
+
+    // Date du post (et non de l'événement) : un post importé avec sa date d'origine garde son âge
+    private static long createdAtMillis(PostCreatedEvent event) {
+        LocalDateTime createdAt = event.getCreatedAt();
+        return createdAt != null
+                ? createdAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    private double weightOf(PostRepositoryCustom.Activity activity) {
+        return switch (activity) {
+            case POST -> postWeight;
+            case LIKE -> likeWeight;
+            case COMMENT -> commentWeight;
+        };
+    }
+
+    private TrendingIndex newIndex(long originMillis) {
+        return new TrendingIndex(Duration.ofHours(halfLifeHours).toMillis(), maxTop, maxTracked, originMillis);
+    }
+
+    private record Interaction(long postId, PostRepositoryCustom.Activity activity, double weight, long atMillis) {
+    }
+}
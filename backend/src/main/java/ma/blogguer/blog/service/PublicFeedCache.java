@@ -0,0 +1,224 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.event.CommentChangedEvent;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostLikeChangedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
+import ma.blogguer.blog.util.CacheLoads;
+import ma.blogguer.blog.util.LongHashSet;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pages du fil public (sans filtre) gardées en JSON déjà sérialisé.
+ *
+ * Chaque post est sérialisé deux fois, avec likedByCurrentUser à false et à true :
+ * la réponse d'un visiteur est l'assemblage des fragments « false », celle d'un
+ * utilisateur connecté choisit le fragment « true » pour les posts qu'il a likés
+ * (une requête). Une création de post ou un changement de profil invalide toutes
+ * les pages ; un like ou un commentaire ne change que des compteurs, tolérés
+ * périmés au plus counter-staleness-ms.
+ */
+@Service
+@RequiredArgsConstructor
+public class PublicFeedCache implements MeterBinder {
+
+    private static final byte[] ITEMS_OPEN = "{\"items\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NEXT_CURSOR = "],\"nextCursor\":".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] HAS_MORE = ",\"hasMore\":".getBytes(StandardCharsets.UTF_8);
+
+    private final PostService postService;
+    private final LikeService likeService;
+    private final ContentVersionService contentVersionService;
+    private final JsonMapper jsonMapper;
+
+    @Value("${application.feed.public-cache.max-pages:1000}")
+    private long maxPages;
+
+    @Value("${application.feed.public-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    @Value("${application.feed.public-cache.counter-staleness-ms:5000}")
+    private long counterStalenessMs;
+
+    private AsyncCache<String, SharedFeedPage> pages;
+
+    // Une page construite avant la dernière création de post n'est plus servie
+    private final AtomicLong generation = new AtomicLong();
+    private volatile long countersChangedAt;
+
+    @PostConstruct
+    void init() {
+        pages = Caffeine.newBuilder()
+                .maximumSize(maxPages)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, pages, "public-feed");
+    }
+
+    /**
+     * Page partagée pour ce curseur et cette taille, reconstruite si elle est absente,
+     * d'une génération antérieure ou si ses compteurs ont dépassé la fenêtre tolérée.
+     */
+    public SharedFeedPage get(String cursor, Integer size) {
+        String key = (cursor == null ? "" : cursor) + "|" + (size == null ? "" : size);
+        SharedFeedPage page = CacheLoads.getOrLoad(pages, key, k -> build(cursor, size));
+        if (isFresh(page)) {
+            return page;
+        }
+        // Un seul rechargement par clé, même si plusieurs requêtes constatent la péremption
+        CacheLoads.removeIfSame(pages, key, page);
+        return CacheLoads.getOrLoad(pages, key, k -> build(cursor, size));
+    }
+
+    public byte[] renderList(SharedFeedPage page, String userEmail) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(page.estimatedSize());
+        writeItems(out, page, likedPostIds(page, userEmail));
+        return out.toByteArray();
+    }
+
+    public byte[] renderPage(SharedFeedPage page, String userEmail) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(page.estimatedSize() + 64);
+        out.writeBytes(ITEMS_OPEN);
+        ByteArrayOutputStream items = new ByteArrayOutputStream(page.estimatedSize());
+        writeItems(items, page, likedPostIds(page, userEmail));
+        byte[] itemBytes = items.toByteArray();
+        // writeItems produit « [ ... ] » : on retire les crochets pour l'enveloppe
+        out.write(itemBytes, 1, itemBytes.length - 2);
+        out.writeBytes(NEXT_CURSOR);
+        out.writeBytes(jsonMapper.writeValueAsBytes(page.getNextCursor()));
+        out.writeBytes(HAS_MORE);
+        out.writeBytes(String.valueOf(page.isHasMore()).getBytes(StandardCharsets.UTF_8));
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostCreated(PostCreatedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPostsImported(PostsImportedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        invalidateAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLikeChanged(PostLikeChangedEvent event) {
+        countersChangedAt = System.currentTimeMillis();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommentChanged(CommentChangedEvent event) {
+        countersChangedAt = System.currentTimeMillis();
+    }
+
+    private void invalidateAll() {
+        generation.incrementAndGet();
+        pages.synchronous().invalidateAll();
+    }
+
+    private boolean isFresh(SharedFeedPage page) {
+        if (page.getGeneration() != generation.get()) {
+            return false;
+        }
+        return page.getBuiltAt() >= countersChangedAt
+                || System.currentTimeMillis() - page.getBuiltAt() < counterStalenessMs;
+    }
+
+    private SharedFeedPage build(String cursor, Integer size) {
+        long readGeneration = generation.get();
+        String version = contentVersionService.feedVersion();
+        long builtAt = System.currentTimeMillis();
+        CursorPage<PostResponse> feed = postService.getFeed(cursor, size, null);
+
+        List<PostResponse> items = feed.getItems();
+        long[] postIds = new long[items.size()];
+        byte[][] unliked = new byte[items.size()][];
+        byte[][] liked = new byte[items.size()][];
+        for (int i = 0; i < items.size(); i++) {
+            PostResponse item = items.get(i);
+            postIds[i] = item.getId();
+            item.setLikedByCurrentUser(false);
+            unliked[i] = jsonMapper.writeValueAsBytes(item);
+            item.setLikedByCurrentUser(true);
+            liked[i] = jsonMapper.writeValueAsBytes(item);
+        }
+        return new SharedFeedPage(version, readGeneration, builtAt, postIds, unliked, liked,
+                feed.getNextCursor(), feed.isHasMore());
+    }
+
+    private LongHashSet likedPostIds(SharedFeedPage page, String userEmail) {
+        if (userEmail == null || page.getPostIds().length == 0) {
+            return new LongHashSet(0);
+        }
+        List<Long> ids = Arrays.stream(page.getPostIds()).boxed().toList();
+        return likeService.findLikedPostIds(userEmail, ids);
+    }
+
+    private static void writeItems(ByteArrayOutputStream out, SharedFeedPage page, LongHashSet liked) {
+        out.write('[');
+        long[] postIds = page.getPostIds();
+        for (int i = 0; i < postIds.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(liked.contains(postIds[i]) ? page.liked[i] : page.unliked[i]);
+        }
+        out.write(']');
+    }
+
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PACKAGE)
+    public static class SharedFeedPage {
+        // Version du fil relevée avant la lecture (ContentVersionService.feedVersion)
+        private final String version;
+        private final long generation;
+        private final long builtAt;
+        private final long[] postIds;
+        private final byte[][] unliked;
+        private final byte[][] liked;
+        private final String nextCursor;
+        private final boolean hasMore;
+
+        int estimatedSize() {
+            int size = 2;
+            for (byte[] item : unliked) {
+                size += item.length + 1;
+            }
+            return size;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.dto.CachedUser;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.util.CacheLoads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache partagé email -> utilisateur pour remplacer les userRepository.findByEmail
+ * des chemins chauds. Toute écriture sur un utilisateur doit appeler {@link #evict(User)}
+ * ou publier un UserProfileChangedEvent ; dans une transaction, l'éviction attend le commit
+ * pour qu'une lecture concurrente ne remette pas l'ancienne ligne en cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserLookupCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.cache.users.max-size:10000}")
+    private long maxSize;
+
+    @Value("${application.cache.users.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private AsyncCache<String, Optional<CachedUser>> usersByEmail;
+
+    @PostConstruct
+    void init() {
+        usersByEmail = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, usersByEmail, "user-lookup");
+    }
+
+    public Optional<CachedUser> findByEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return Optional.empty();
+        }
+        return CacheLoads.getOrLoad(usersByEmail, email, key -> userRepository.findByEmail(key).map(CachedUser::fromUser));
+    }
+
+    public CachedUser getByEmail(String email) {
+        return findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    public void evict(User user) {
+        if (user == null || user.getEmail() == null) {
+            return;
+        }
+        String email = user.getEmail();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    usersByEmail.synchronous().invalidate(email);
+                }
+            });
+        } else {
+            usersByEmail.synchronous().invalidate(email);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (event.getEmail() != null) {
+            usersByEmail.synchronous().invalidate(event.getEmail());
+        }
+    }
+
+    public CacheStats stats() {
+        return usersByEmail.synchronous().stats();
+    }
+
+    public long size() {
+        return usersByEmail.synchronous().estimatedSize();
+    }
+}
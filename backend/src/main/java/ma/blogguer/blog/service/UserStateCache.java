@@ -0,0 +1,107 @@
+package ma.blogguer.blog.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.UserProfileChangedEvent;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.util.CacheLoads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * État d'un compte (actif, rôle) utilisé pour accepter ou révoquer un JWT sans
+ * interroger la table users à chaque requête. Doit être invalidé dès qu'un
+ * profil ou un rôle change ; dans une transaction, l'invalidation attend le commit.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStateCache implements MeterBinder {
+
+    private final UserRepository userRepository;
+
+    @Value("${application.security.user-state-cache.max-size:50000}")
+    private long maxSize;
+
+    @Value("${application.security.user-state-cache.ttl-seconds:600}")
+    private long ttlSeconds;
+
+    private AsyncCache<Long, Optional<UserState>> states;
+
+    @PostConstruct
+    void init() {
+        states = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .buildAsync();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, states, "user-state");
+    }
+
+    /**
+     * @return l'état du compte, vide si l'utilisateur n'existe plus
+     */
+    public Optional<UserState> get(Long userId) {
+        return CacheLoads.getOrLoad(states, userId, id -> userRepository.findById(id).map(UserState::of));
+    }
+
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    states.synchronous().invalidate(userId);
+                }
+            });
+        } else {
+            states.synchronous().invalidate(userId);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserProfileChanged(UserProfileChangedEvent event) {
+        if (event.getUserId() != null) {
+            states.synchronous().invalidate(event.getUserId());
+        }
+    }
+
+    public CacheStats stats() {
+        return states.synchronous().stats();
+    }
+
+    public long size() {
+        return states.synchronous().estimatedSize();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class UserState {
+        private final boolean enabled;
+        private final User.Role role;
+
+        static UserState of(User user) {
+            return new UserState(user.isEnabled(), user.getRole());
+        }
+    }
+}
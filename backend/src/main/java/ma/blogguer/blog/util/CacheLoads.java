@@ -0,0 +1,52 @@
+package ma.blogguer.blog.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Chargement « un seul appel par clé » sur un cache Caffeine asynchrone, sans
+ * exécuter le chargement sous le verrou de la map.
+ *
+ * Cache.get(key, loader) exécute loader dans un ConcurrentHashMap.compute, donc
+ * dans un bloc synchronized : en Java 21, un thread virtuel qui y fait une requête
+ * JDBC épingle son thread porteur. Ici seule une future vide est insérée sous
+ * verrou ; le chargement a lieu ensuite, sur le thread appelant, et les appels
+ * concurrents attendent la future (attente qui libère le porteur).
+ */
+public final class CacheLoads {
+
+    private CacheLoads() {
+    }
+
+    public static <K, V> V getOrLoad(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> future = cache.get(key, (k, executor) -> created);
+        if (future == created) {
+            try {
+                created.complete(loader.apply(key));
+            } catch (RuntimeException | Error e) {
+                // Caffeine retire d'elle-même une future en échec
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Retire {@code value} du cache si c'est toujours la valeur associée à {@code key}.
+     */
+    public static <K, V> void removeIfSame(AsyncCache<K, V> cache, K key, V value) {
+        cache.asMap().computeIfPresent(key, (k, future) -> future.getNow(null) == value ? null : future);
+    }
+}
@@ -0,0 +1,49 @@
+package ma.blogguer.blog.util;
+
+/**
+ * Compteurs de la requête HTTP en cours (lignes renvoyées, requêtes SQL),
+ * attachés au thread qui la traite. Ouverts et fermés par RequestLoggingFilter ;
+ * hors requête (tâches planifiées, @Async) les incréments sont ignorés.
+ */
+public final class RequestMetrics {
+
+    private static final ThreadLocal<RequestMetrics> CURRENT = new ThreadLocal<>();
+
+    private int rows;
+    private int queries;
+
+    private RequestMetrics() {
+    }
+
+    public static RequestMetrics start() {
+        RequestMetrics metrics = new RequestMetrics();
+        CURRENT.set(metrics);
+        return metrics;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    public static void addRows(int count) {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.rows += count;
+        }
+    }
+
+    public static void countQuery() {
+        RequestMetrics metrics = CURRENT.get();
+        if (metrics != null) {
+            metrics.queries++;
+        }
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+}
@@ -0,0 +1,115 @@
+package ma.blogguer.blog.util;
+
+import java.util.Arrays;
+
+/**
+ * Couples (clé, valeur) de long primitifs triés par clé puis par valeur, sans doublon.
+ * Deux tableaux parallèles ; l'ajout en fin (cas des couples croissants) est en O(1)
+ * amorti, la recherche est dichotomique. Non thread-safe.
+ */
+public class SortedLongPairArray {
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    public SortedLongPairArray() {
+        this(4);
+    }
+
+    public SortedLongPairArray(int initialCapacity) {
+        keys = new long[Math.max(1, initialCapacity)];
+        values = new long[keys.length];
+    }
+
+    public boolean add(long key, long value) {
+        if (size == 0 || compareAt(size - 1, key, value) < 0) {
+            ensureCapacity();
+            keys[size] = key;
+            values[size] = value;
+            size++;
+            return true;
+        }
+        int index = search(key, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity();
+        System.arraycopy(keys, insertAt, keys, insertAt + 1, size - insertAt);
+        System.arraycopy(values, insertAt, values, insertAt + 1, size - insertAt);
+        keys[insertAt] = key;
+        values[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long key, long value) {
+        int index = search(key, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(long key, long value) {
+        return search(key, value) >= 0;
+    }
+
+    public long keyAt(int index) {
+        return keys[index];
+    }
+
+    public long valueAt(int index) {
+        return values[index];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return l'index du plus grand couple strictement inférieur à (key, value), ou -1
+     */
+    public int lastIndexBefore(long key, long value) {
+        int index = search(key, value);
+        return (index >= 0 ? index : -index - 1) - 1;
+    }
+
+    // Même contrat qu'Arrays.binarySearch : index trouvé, ou -(point d'insertion) - 1
+    private int search(long key, long value) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareAt(mid, key, value);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private int compareAt(int index, long key, long value) {
+        int cmp = Long.compare(keys[index], key);
+        return cmp != 0 ? cmp : Long.compare(values[index], value);
+    }
+
+    private void ensureCapacity() {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+    }
+}
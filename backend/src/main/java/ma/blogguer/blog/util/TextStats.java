@@ -0,0 +1,181 @@
+package ma.blogguer.blog.util;
+
+/**
+ * Statistiques de lecture d'un contenu de post (HTML de l'éditeur, Markdown ou texte brut),
+ * calculées en un seul parcours sans allouer de chaîne ni compiler d'expression régulière.
+ * - mots : suites de caractères hors espaces Unicode (y compris espaces insécables) ;
+ *   les balises HTML servent de séparateurs et ne sont pas comptées
+ * - caractères : points de code visibles, hors espaces et balises
+ * - images : balises &lt;img&gt; et images Markdown ![...]
+ * - blocs de code : balises &lt;pre&gt; et blocs Markdown délimités par ```
+ * À recalculer à chaque modification du contenu (création, édition, import).
+ */
+public final class TextStats {
+
+    public static final TextStats EMPTY = new TextStats(0, 0, 0, 0);
+
+    private static final double WORDS_PER_MINUTE = 200.0;
+
+    private final int words;
+    private final int characters;
+    private final int images;
+    private final int codeBlocks;
+
+    private TextStats(int words, int characters, int images, int codeBlocks) {
+        this.words = words;
+        this.characters = characters;
+        this.images = images;
+        this.codeBlocks = codeBlocks;
+    }
+
+    public static TextStats of(CharSequence text) {
+        if (text == null || text.isEmpty()) {
+            return EMPTY;
+        }
+        int length = text.length();
+        int words = 0;
+        int characters = 0;
+        int images = 0;
+        int fences = 0;
+        int preTags = 0;
+        boolean inWord = false;
+        boolean atLineStart = true;
+        // Position à partir de laquelle plus aucun '>' n'existe : un '<' au-delà est du texte
+        int noTagEndFrom = length;
+
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+
+            if (c == '<' && i < noTagEndFrom && startsTag(text, i + 1)) {
+                int end = indexOf(text, '>', i + 1);
+                if (end < 0) {
+                    noTagEndFrom = i;
+                } else {
+                    if (tagNameIs(text, i + 1, "img")) {
+                        images++;
+                    } else if (tagNameIs(text, i + 1, "pre")) {
+                        preTags++;
+                    }
+                    inWord = false;
+                    atLineStart = false;
+                    i = end + 1;
+                    continue;
+                }
+            }
+
+            if (atLineStart && c == '`' && regionMatches(text, i, "```")) {
+                // Ligne de délimitation : la langue éventuelle (```java) n'est pas du texte
+                fences++;
+                inWord = false;
+                int eol = indexOf(text, '\n', i + 3);
+                i = eol < 0 ? length : eol;
+                continue;
+            }
+
+            int codePoint;
+            if (c < 0x80) {
+                codePoint = c;
+                i++;
+            } else {
+                codePoint = Character.codePointAt(text, i);
+                i += Character.charCount(codePoint);
+            }
+
+            if (isSpace(codePoint)) {
+                inWord = false;
+                if (codePoint == '\n') {
+                    atLineStart = true;
+                }
+                continue;
+            }
+
+            atLineStart = false;
+            characters++;
+            if (!inWord) {
+                words++;
+                inWord = true;
+            }
+            if (codePoint == '!' && i < length && text.charAt(i) == '[') {
+                images++;
+            }
+        }
+
+        // Un bloc ``` non refermé compte quand même
+        return new TextStats(words, characters, images, preTags + (fences + 1) / 2);
+    }
+
+    public int getWords() {
+        return words;
+    }
+
+    public int getCharacters() {
+        return characters;
+    }
+
+    public int getImages() {
+        return images;
+    }
+
+    public int getCodeBlocks() {
+        return codeBlocks;
+    }
+
+    // 200 mots par minute, une minute entamée compte
+    public int getReadTimeMinutes() {
+        return (int) Math.ceil(words / WORDS_PER_MINUTE);
+    }
+
+    // Espaces Unicode : Character.isWhitespace exclut les espaces insécables, isSpaceChar les inclut
+    private static boolean isSpace(int codePoint) {
+        if (codePoint < 0x80) {
+            // Même résultat que Character.isWhitespace, sans l'appel : l'essentiel des contenus est ASCII
+            return codePoint == ' ' || (codePoint >= '\t' && codePoint <= '\r')
+                    || (codePoint >= 0x1C && codePoint <= 0x1F);
+        }
+        return Character.isWhitespace(codePoint) || Character.isSpaceChar(codePoint);
+    }
+
+    // "<p", "</p", "<!--" ouvrent une balise ; "a < b" non
+    private static boolean startsTag(CharSequence text, int from) {
+        if (from >= text.length()) {
+            return false;
+        }
+        char c = text.charAt(from);
+        return c == '/' || c == '!' || (c < 128 && Character.isLetter(c));
+    }
+
+    private static boolean tagNameIs(CharSequence text, int from, String name) {
+        int end = from + name.length();
+        if (end > text.length()) {
+            return false;
+        }
+        for (int k = 0; k < name.length(); k++) {
+            if (Character.toLowerCase(text.charAt(from + k)) != name.charAt(k)) {
+                return false;
+            }
+        }
+        return end == text.length() || !Character.isLetterOrDigit(text.charAt(end));
+    }
+
+    private static boolean regionMatches(CharSequence text, int from, String expected) {
+        if (from + expected.length() > text.length()) {
+            return false;
+        }
+        for (int k = 0; k < expected.length(); k++) {
+            if (text.charAt(from + k) != expected.charAt(k)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(CharSequence text, char target, int from) {
+        for (int k = from; k < text.length(); k++) {
+            if (text.charAt(k) == target) {
+                return k;
+            }
+        }
+        return -1;
+    }
+}
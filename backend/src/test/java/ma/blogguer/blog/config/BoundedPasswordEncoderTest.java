@@ -0,0 +1,93 @@
+package ma.blogguer.blog.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedPasswordEncoderTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    void hashingRunsOnThePoolAndIsMeasured() {
+        encoder = new BoundedPasswordEncoder(new PlainEncoder(), 2, 4, 1, registry);
+        String hash = encoder.encode("secret");
+
+        assertEquals("{plain}secret", hash);
+        assertTrue(encoder.matches("secret", hash));
+        assertFalse(encoder.matches("autre", hash));
+        assertEquals(1, registry.get("blog.security.password.hashing").tag("operation", "encode").timer().count());
+        assertEquals(2, registry.get("blog.security.password.hashing").tag("operation", "matches").timer().count());
+        assertNotNull(registry.get("executor.queued").tag("name", "password-hashing").gauge());
+    }
+
+    @Test
+    void fullQueueIsRejectedImmediately() throws Exception {
+        encoder = new BoundedPasswordEncoder(new BlockingEncoder(), 1, 1, 2, registry);
+
+        // Un hachage en cours, un en file : le troisième est refusé sans attendre
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+        waitForQueued(1);
+
+        BoundedPasswordEncoder.SaturatedException e = assertThrows(BoundedPasswordEncoder.SaturatedException.class,
+                () -> encoder.encode("c"));
+        assertEquals(2, e.getRetryAfterSeconds());
+        assertEquals(1, registry.get("blog.security.password.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("{plain}a", running.get(5, TimeUnit.SECONDS));
+        assertEquals("{plain}b", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void waitForQueued(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (registry.get("executor.queued").tag("name", "password-hashing").gauge().value() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "tâche jamais mise en file");
+            Thread.sleep(5);
+        }
+    }
+
+    private static class PlainEncoder implements PasswordEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            return "{plain}" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+
+    // Bloque le premier hachage jusqu'à release, pour remplir le pool
+    private class BlockingEncoder extends PlainEncoder {
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.encode(rawPassword);
+        }
+    }
+}
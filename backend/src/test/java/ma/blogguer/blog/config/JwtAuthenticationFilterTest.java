@@ -0,0 +1,120 @@
+package ma.blogguer.blog.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.service.JwtService;
+import ma.blogguer.blog.service.UserStateCache;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class JwtAuthenticationFilterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JwtAuthenticationFilter filter;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserStateCache userStateCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("jwt-user", User.Role.BLOGGER);
+        token = jwtService.generateToken(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void authenticatesFromClaimsWithoutQueryingUsers() throws Exception {
+        authenticate(); // premier passage : charge l'état du compte
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        Authentication authentication = authenticate();
+
+        assertNotNull(authentication);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        assertEquals(user.getId(), principal.getId());
+        assertEquals("jwt-user@test.ma", authentication.getName());
+        assertTrue(authentication.getAuthorities().stream()
+                .anyMatch(a -> a.getAuthority().equals("ROLE_BLOGGER")));
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void disabledAccountIsRejectedOnceTheCacheIsInvalidated() throws Exception {
+        assertNotNull(authenticate());
+
+        user.setEnabled(false);
+        userRepository.save(user);
+        userStateCache.invalidate(user.getId());
+
+        assertNull(authenticate());
+    }
+
+    @Test
+    void roleChangeRevokesOlderTokens() throws Exception {
+        user.setRole(User.Role.READER);
+        userRepository.save(user);
+        userStateCache.invalidate(user.getId());
+
+        assertNull(authenticate());
+    }
+
+    @Test
+    void defaultModeReadsTheAccountOnEveryRequest() throws Exception {
+        ReflectionTestUtils.setField(filter, "stateless", false);
+        try {
+            assertNotNull(authenticate());
+
+            // Aucun cache à invalider : le compte désactivé est vu à la requête suivante
+            user.setEnabled(false);
+            userRepository.save(user);
+            assertNull(authenticate());
+        } finally {
+            ReflectionTestUtils.setField(filter, "stateless", true);
+        }
+    }
+
+    private Authentication authenticate() throws Exception {
+        SecurityContextHolder.clearContext();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/posts");
+        request.addHeader("Authorization", "Bearer " + token);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
@@ -0,0 +1,91 @@
+package ma.blogguer.blog.config;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ma.blogguer.blog.dto.PostRequest;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.service.PostService;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class RequestLoggingFilterTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private RequestLoggingFilter filter;
+
+    @Autowired
+    private PostService postService;
+
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+    private Long postId;
+
+    @BeforeEach
+    void setUp() {
+        User author = fixtures.user("logger", User.Role.BLOGGER);
+        PostRequest request = new PostRequest();
+        request.setTitle("Journalisation");
+        request.setContent("Contenu");
+        request.setCategory("Technique");
+        postId = postService.createPost(request, author.getEmail()).getId();
+
+        logger = (Logger) LoggerFactory.getLogger(RequestLoggingFilter.class);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        logger.detachAppender(appender);
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.01);
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void sampledRequestLogsOneSummaryLine() throws Exception {
+        ReflectionTestUtils.setField(filter, "sampleRate", 1.0);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts/" + postId), response,
+                (req, res) -> {
+                    PostResponse post = postService.getPostById(postId);
+                    assertEquals("Journalisation", post.getTitle());
+                });
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.startsWith("method=GET path=/api/posts/" + postId + " status=200 durationMs="), line);
+        assertTrue(line.contains(" rows=1 "), line);
+        assertFalse(line.endsWith(" queries=0"), line);
+    }
+
+    @Test
+    void unsampledRequestsOnlyLogServerErrors() throws Exception {
+        ReflectionTestUtils.setField(filter, "sampleRate", 0.0);
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), new MockHttpServletResponse(),
+                (req, res) -> postService.getFeed(null, 10, null));
+        assertTrue(appender.list.isEmpty());
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/posts"), new MockHttpServletResponse(),
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+        assertEquals(1, appender.list.size());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains(" status=503 "));
+    }
+}
@@ -0,0 +1,139 @@
+package ma.blogguer.blog.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.service.ContentVersionService;
+import ma.blogguer.blog.service.LikeService;
+import ma.blogguer.blog.service.PublicFeedCache;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private PublicFeedCache publicFeedCache;
+
+    @Autowired
+    private ContentVersionService contentVersionService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("poller", User.Role.READER);
+        post = postRepository.save(Post.builder().title("Sondé").content("Contenu").author(user).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void unchangedPostIsAnswered304WithoutQueries() throws Exception {
+        String etag = fetchEtag("/api/posts/" + post.getId());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get("/api/posts/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, stats.getPrepareStatementCount());
+
+        likeService.toggleLike(post.getId(), user.getId());
+        mockMvc.perform(get("/api/posts/" + post.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void feedAndCommentsRevalidateUntilSomethingChanges() throws Exception {
+        String feedEtag = fetchEtag("/api/posts");
+        String commentsEtag = fetchEtag("/api/posts/" + post.getId() + "/comments");
+        assertNotEquals(feedEtag, fetchEtag("/api/posts?size=5"));
+
+        mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, feedEtag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/posts/" + post.getId() + "/comments").header(HttpHeaders.IF_NONE_MATCH, commentsEtag))
+                .andExpect(status().isNotModified());
+
+        likeService.toggleLike(post.getId(), user.getId());
+        mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, feedEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void unchangedFeedIsAnswered304WithoutRebuildingAnEvictedPage() throws Exception {
+        // Page construite à la version courante du fil, puis sortie du cache sans que le fil change
+        publicFeedCache.onPostCreated(null);
+        String etag = fetchEtag("/api/posts");
+        publicFeedCache.onPostCreated(null);
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        mockMvc.perform(get("/api/posts").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        assertEquals(0, stats.getPrepareStatementCount());
+    }
+
+    @Test
+    void likesVersionChangesOnlyForTheUserWhoLiked() {
+        User other = fixtures.user("voisin", User.Role.READER);
+        Long mine = contentVersionService.likesVersion(user.getId());
+        Long theirs = contentVersionService.likesVersion(other.getId());
+        assertNull(contentVersionService.likesVersion(null));
+
+        likeService.toggleLike(post.getId(), user.getId());
+        assertNotEquals(mine, contentVersionService.likesVersion(user.getId()));
+        assertEquals(theirs, contentVersionService.likesVersion(other.getId()));
+    }
+
+    @Test
+    void lastModifiedNeverRunsAheadOfTheClock() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            likeService.toggleLike(post.getId(), user.getId());
+        }
+        MvcResult result = mockMvc.perform(get("/api/posts")).andExpect(status().isOk()).andReturn();
+        assertTrue(result.getResponse().getDateHeader(HttpHeaders.LAST_MODIFIED) <= System.currentTimeMillis());
+    }
+
+    private String fetchEtag(String url) throws Exception {
+        MvcResult result = mockMvc.perform(get(url)).andExpect(status().isOk()).andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertNotNull(result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED));
+        return etag;
+    }
+}
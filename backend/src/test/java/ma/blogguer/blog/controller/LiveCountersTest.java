@@ -0,0 +1,128 @@
+package ma.blogguer.blog.controller;
+
+import ma.blogguer.blog.dto.CommentRequest;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.service.CommentService;
+import ma.blogguer.blog.service.LikeService;
+import ma.blogguer.blog.service.LiveCounterService;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class LiveCountersTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private LiveCounterService liveCounterService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private User user;
+    private Post watched;
+    private Post other;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("watcher", User.Role.READER);
+        watched = postRepository.save(Post.builder().title("Suivi").content("Contenu").author(user).build());
+        other = postRepository.save(Post.builder().title("Autre").content("Contenu").author(user).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void burstOfChangesIsCoalescedIntoOneFramePerPost() throws Exception {
+        MockHttpServletResponse first = subscribe(watched.getId());
+        MockHttpServletResponse second = subscribe(watched.getId());
+        assertEquals("text/event-stream", first.getContentType());
+        String snapshot = "data:{\"postId\":" + watched.getId() + ",\"likes\":0,\"commentsCount\":0}";
+        awaitContains(first, snapshot);
+
+        likeService.toggleLike(watched.getId(), user.getId());
+        likeService.toggleLike(other.getId(), user.getId());
+        CommentRequest comment = new CommentRequest();
+        comment.setContent("En direct");
+        commentService.addComment(watched.getId(), comment, user.getEmail());
+        commentService.addComment(watched.getId(), comment, user.getEmail());
+        liveCounterService.flush();
+
+        String update = "data:{\"postId\":" + watched.getId() + ",\"likes\":1,\"commentsCount\":2}";
+        for (MockHttpServletResponse response : new MockHttpServletResponse[] { first, second }) {
+            awaitContains(response, update);
+            String content = response.getContentAsString();
+            // Instantané + une trame pour les trois changements (deux si le flush planifié est passé entre-temps)
+            int frames = count(content, "event:counters\n");
+            assertTrue(frames == 2 || frames == 3, content);
+            assertTrue(content.endsWith(update + "\n\n"), content);
+            assertFalse(content.contains("\"postId\":" + other.getId()), content);
+        }
+    }
+
+    @Test
+    void invalidSubscriptionsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/posts/live").param("ids", ""))
+                .andExpect(status().isBadRequest());
+        String tooMany = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/posts/live").param("ids", tooMany))
+                .andExpect(status().isBadRequest());
+    }
+
+    private MockHttpServletResponse subscribe(Long postId) throws Exception {
+        return mockMvc.perform(get("/api/posts/live").param("ids", String.valueOf(postId)))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    // Les trames sont écrites par des threads virtuels : on attend leur arrivée
+    private static void awaitContains(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!response.getContentAsString().contains(expected)) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Trame absente : " + expected + " dans " + response.getContentAsString());
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static int count(String content, String token) {
+        int count = 0;
+        for (int i = content.indexOf(token); i >= 0; i = content.indexOf(token, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,110 @@
+package ma.blogguer.blog.controller;
+
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.service.JwtService;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.webmvc.test.autoconfigure.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class MetricsEndpointTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private User user;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("scraped", User.Role.READER);
+        post = postRepository.save(Post.builder().title("Mesuré").content("Contenu").author(user).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void prometheusScrapeCoversServicesRepositoriesCachesAndPool() throws Exception {
+        String token = jwtService.generateToken(user);
+        mockMvc.perform(get("/api/posts/" + post.getId())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/posts")).andExpect(status().isOk());
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("blog_service_seconds_count{class=\"ma.blogguer.blog.service.PostService\""));
+        assertTrue(scrape.contains("method=\"getPostById\""));
+        assertTrue(scrape.contains("blog_security_jwt_filter_seconds_count{outcome=\"authenticated\"}"));
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count"));
+        assertTrue(scrape.contains("hibernate_statements_total"));
+        assertTrue(scrape.contains("cache_gets_total{cache=\"public-feed\""));
+        assertTrue(scrape.contains("hikaricp_connections_active"));
+    }
+
+    @Test
+    void prometheusScrapeIsRefusedOutsideTheScrapeNetworks() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.7")))
+                .andExpect(status().isForbidden());
+
+        String readerToken = jwtService.generateToken(user);
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.7"))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + readerToken))
+                .andExpect(status().isForbidden());
+
+        String adminToken = jwtService.generateToken(fixtures.user("ops", User.Role.ADMIN));
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.7"))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void otherActuatorEndpointsRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+
+        // /actuator (liste des endpoints) est toujours exposé : il passe par la règle ADMIN, pas par un 404
+        mockMvc.perform(get("/actuator")).andExpect(status().isForbidden());
+        String readerToken = jwtService.generateToken(user);
+        mockMvc.perform(get("/actuator").header(HttpHeaders.AUTHORIZATION, "Bearer " + readerToken))
+                .andExpect(status().isForbidden());
+
+        String adminToken = jwtService.generateToken(fixtures.user("admin", User.Role.ADMIN));
+        mockMvc.perform(get("/actuator").header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken))
+                .andExpect(status().isOk());
+    }
+
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package ma.blogguer.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvertedIndexTest {
+
+    @Test
+    void tokenizerFoldsAccentsAndDropsStopWords() {
+        assertEquals(List.of("developpement", "web", "spring", "boot"),
+                TextAnalyzer.tokenize("Le Développement web avec Spring-Boot !"));
+    }
+
+    @Test
+    void titleMatchesRankAboveContentMatches() {
+        InvertedIndex index = new InvertedIndex(50);
+        index.index(1L, "Recette de cuisine", null, "On parle un peu de java ici", List.of());
+        index.index(2L, "Java et la concurrence", null, "Threads et verrous", List.of());
+        index.index(3L, "Voyage", null, "Rien à voir", List.of());
+
+        InvertedIndex.SearchResult result = index.search("java", 0, 10);
+        assertEquals(List.of(2L, 1L), result.getPostIds());
+        assertFalse(result.isHasMore());
+    }
+
+    @Test
+    void prefixQueriesExpandOverTheDictionary() {
+        InvertedIndex index = new InvertedIndex(50);
+        index.index(1L, "Spring Boot", null, "", List.of());
+        index.index(2L, "Printemps", null, "", List.of("springfield"));
+        index.index(3L, "Été", null, "", List.of());
+
+        List<Long> ids = index.search("spri*", 0, 10).getPostIds();
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(List.of(1L, 2L)));
+        assertEquals(List.of(3L), index.search("ete", 0, 10).getPostIds());
+    }
+
+    @Test
+    void pagesDoNotOverlapAndReindexReplacesThePost() {
+        InvertedIndex index = new InvertedIndex(50);
+        for (long id = 1; id <= 25; id++) {
+            index.index(id, "Article " + id, null, "kotlin", new ArrayList<>());
+        }
+
+        InvertedIndex.SearchResult first = index.search("kotlin", 0, 10);
+        InvertedIndex.SearchResult last = index.search("kotlin", 20, 10);
+        assertTrue(first.isHasMore());
+        assertEquals(5, last.getPostIds().size());
+        assertFalse(last.isHasMore());
+        assertTrue(first.getPostIds().stream().noneMatch(last.getPostIds()::contains));
+
+        index.index(7L, "Article 7", null, "scala", List.of());
+        assertEquals(25, index.size());
+        assertFalse(index.search("kotlin", 0, 30).getPostIds().contains(7L));
+        assertEquals(List.of(7L), index.search("scala", 0, 10).getPostIds());
+    }
+}
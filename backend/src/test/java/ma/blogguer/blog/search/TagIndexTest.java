@@ -0,0 +1,80 @@
+package ma.blogguer.blog.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TagIndexTest {
+
+    private TagIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TagIndex();
+        index.add(1L, at(1), List.of("Java", "spring"));
+        index.add(2L, at(2), List.of("java"));
+        index.add(3L, at(3), List.of("spring", "angular"));
+        index.add(5L, at(5), List.of("java", "spring"));
+        index.add(4L, at(4), List.of(" JAVA "));
+    }
+
+    @Test
+    void anyMergesListsNewestFirst() {
+        assertEquals(List.of(5L, 4L, 3L, 2L, 1L), ids(index.find(List.of("java", "angular"), TagIndex.Match.ANY, null, 10)));
+        assertEquals(List.of(3L, 2L), ids(index.find(List.of("java", "angular"), TagIndex.Match.ANY, posting(4), 2)));
+    }
+
+    @Test
+    void allIntersectsAndUnknownTagMatchesNothing() {
+        assertEquals(List.of(5L, 1L), ids(index.find(List.of("java", "Spring"), TagIndex.Match.ALL, null, 10)));
+        assertEquals(List.of(1L), ids(index.find(List.of("java", "spring"), TagIndex.Match.ALL, posting(5), 10)));
+        assertTrue(index.find(List.of("java", "rust"), TagIndex.Match.ALL, null, 10).isEmpty());
+    }
+
+    @Test
+    void postsAreOrderedByCreationDateLikeTheMainFeed() {
+        // Post importé : id plus grand, date d'origine plus ancienne
+        index.add(6L, at(0), List.of("java", "spring"));
+        index.add(7L, at(5), List.of("java"));
+
+        assertEquals(List.of(7L, 5L, 4L, 2L, 1L, 6L), ids(index.find(List.of("java"), TagIndex.Match.ANY, null, 10)));
+        assertEquals(List.of(1L, 6L), ids(index.find(List.of("java", "spring"), TagIndex.Match.ALL, posting(5), 10)));
+        // Même date : l'id départage, comme dans le fil
+        assertEquals(List.of(5L, 4L), ids(index.find(List.of("java"), TagIndex.Match.ANY,
+                new TagIndex.Posting(at(5), 7L), 2)));
+    }
+
+    @Test
+    void postedAtRoundTripsThroughTheCursorDate() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000);
+        assertEquals(createdAt, TagIndex.toDateTime(TagIndex.postedAt(createdAt)));
+        assertTrue(TagIndex.postedAt(createdAt) < TagIndex.postedAt(createdAt.plusNanos(1_000)));
+    }
+
+    @Test
+    void popularTagsAreCountedAndRemovalKeepsCountsExact() {
+        assertEquals(List.of(Map.entry("java", 4), Map.entry("spring", 3)), index.popular(2));
+
+        index.remove(3L, at(3), List.of("spring", "angular"));
+        assertEquals(0, index.count("angular"));
+        assertEquals(2, index.count("spring"));
+        assertEquals(List.of(Map.entry("java", 4), Map.entry("spring", 2)), index.popular(10));
+    }
+
+    private static long at(int minute) {
+        return TagIndex.postedAt(LocalDateTime.of(2024, 1, 1, 10, minute));
+    }
+
+    private static TagIndex.Posting posting(int id) {
+        return new TagIndex.Posting(at(id), id);
+    }
+
+    private static List<Long> ids(List<TagIndex.Posting> postings) {
+        return postings.stream().map(TagIndex.Posting::getPostId).toList();
+    }
+}
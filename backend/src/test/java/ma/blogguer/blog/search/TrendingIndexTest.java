@@ -0,0 +1,70 @@
+package ma.blogguer.blog.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingIndexTest {
+
+    private static final long HOUR = 3_600_000L;
+
+    @Test
+    void recentInteractionsOutrankOlderOnes() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 100, 0);
+        // Trois likes il y a deux demi-vies valent moins que deux likes récents
+        for (int i = 0; i < 3; i++) {
+            index.add(1L, 1, 0);
+        }
+        index.add(2L, 1, 2 * HOUR);
+        index.add(2L, 1, 2 * HOUR);
+
+        assertArrayEquals(new long[] { 2L, 1L }, index.top(10));
+        assertEquals(0.75, index.score(1L, 2 * HOUR), 1e-9);
+        assertEquals(2.0, index.score(2L, 2 * HOUR), 1e-9);
+    }
+
+    @Test
+    void withdrawalCancelsTheContributionAndDropsThePost() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 100, 0);
+        index.add(1L, 1, 0);
+        index.add(2L, 2, 0);
+        assertArrayEquals(new long[] { 2L, 1L }, index.top(10));
+
+        index.add(2L, -2, 10);
+        assertArrayEquals(new long[] { 1L }, index.top(10));
+        assertEquals(1, index.size());
+
+        // Retrait sur un post inconnu : ignoré
+        index.add(3L, -1, 10);
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void trackedPostsAndTopAreBounded() {
+        TrendingIndex index = new TrendingIndex(HOUR, 3, 5, 0);
+        for (long id = 1; id <= 8; id++) {
+            index.add(id, id, 0);
+        }
+        assertEquals(5, index.size());
+        assertArrayEquals(new long[] { 8L, 7L, 6L }, index.top(10));
+        assertArrayEquals(new long[] { 8L }, index.top(1));
+
+        // Un post sorti du top y revient quand il dépasse le dernier
+        index.add(4L, 10, 0);
+        assertArrayEquals(new long[] { 4L, 8L, 7L }, index.top(3));
+        assertEquals(0, index.score(1L, 0));
+    }
+
+    @Test
+    void reanchoringKeepsTheOrderOverLongPeriods() {
+        TrendingIndex index = new TrendingIndex(HOUR, 10, 100, 0);
+        index.add(1L, 5, 0);
+        index.add(2L, 1, 0);
+        long later = 300 * HOUR;
+        index.add(3L, 1, later);
+
+        assertArrayEquals(new long[] { 3L }, index.top(1));
+        assertEquals(1.0, index.score(3L, later), 1e-9);
+        assertTrue(index.score(1L, later) < 1e-80);
+    }
+}
@@ -0,0 +1,72 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.AuthRequest;
+import ma.blogguer.blog.dto.AuthResponse;
+import ma.blogguer.blog.dto.RegisterRequest;
+import ma.blogguer.blog.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class AuthLoginTest {
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        RegisterRequest request = new RegisterRequest();
+        request.setUsername("hasher");
+        request.setEmail("hasher@test.ma");
+        request.setPassword("motdepasse");
+        assertNotNull(authService.register(request).getToken());
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void loginLoadsTheUserOnce() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        AuthResponse response = authService.authenticate(login("motdepasse"));
+
+        assertNotNull(response.getToken());
+        assertEquals("hasher@test.ma", response.getUser().getEmail());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void wrongOrUnknownCredentialsAreRejected() {
+        assertNull(authService.authenticate(login("mauvais")).getToken());
+
+        AuthRequest unknown = new AuthRequest();
+        unknown.setEmail("inconnu@test.ma");
+        unknown.setPassword("motdepasse");
+        assertNull(authService.authenticate(unknown).getToken());
+    }
+
+    private static AuthRequest login(String password) {
+        AuthRequest request = new AuthRequest();
+        request.setEmail("hasher@test.ma");
+        request.setPassword(password);
+        return request;
+    }
+}
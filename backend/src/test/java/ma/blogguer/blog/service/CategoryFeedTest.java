@@ -0,0 +1,97 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.CategoryCount;
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.PostRequest;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CategoryFeedTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = fixtures.user("categorizer", User.Role.BLOGGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void countersFollowCreationsWithoutCounting() {
+        for (int i = 0; i < 3; i++) {
+            create("Jardinage", "Potager " + i);
+        }
+        create("Cuisine", "Tarte");
+
+        List<CategoryCount> categories = postService.getCategories();
+        assertEquals(new CategoryCount("Jardinage", 3), categories.get(0));
+        assertTrue(categories.contains(new CategoryCount("Cuisine", 1)));
+    }
+
+    @Test
+    void firstPageIsCachedAndEvictedOnCreation() {
+        for (int i = 0; i < 5; i++) {
+            create("Randonnée", "Sentier " + i);
+        }
+        create("Autre", "Hors catégorie");
+
+        CursorPage<PostResponse> first = postService.getCategoryFeed("Randonnée", null, 2, null);
+        assertEquals(2, first.getItems().size());
+        assertEquals("Sentier 4", first.getItems().get(0).getTitle());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        postService.getCategoryFeed("Randonnée", null, 3, null);
+        // Seule la requête groupée des tags reste ; les posts viennent du cache
+        assertEquals(1, stats.getPrepareStatementCount());
+
+        create("Randonnée", "Sentier 5");
+        assertEquals("Sentier 5", postService.getCategoryFeed("Randonnée", null, 2, null).getItems().get(0).getTitle());
+
+        Set<String> titles = new HashSet<>();
+        String cursor = null;
+        do {
+            CursorPage<PostResponse> page = postService.getCategoryFeed("Randonnée", cursor, 2, null);
+            page.getItems().forEach(post -> assertTrue(titles.add(post.getTitle())));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        assertEquals(6, titles.size());
+    }
+
+    private void create(String category, String title) {
+        PostRequest request = new PostRequest();
+        request.setTitle(title);
+        request.setContent("Contenu");
+        request.setCategory(category);
+        postService.createPost(request, author.getEmail());
+    }
+}
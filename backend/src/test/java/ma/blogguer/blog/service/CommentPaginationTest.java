@@ -0,0 +1,143 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.CommentRequest;
+import ma.blogguer.blog.dto.CommentResponse;
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.UpdateProfileRequest;
+import ma.blogguer.blog.entity.Comment;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.CommentRepository;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class CommentPaginationTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentTailCache commentTailCache;
+
+    @Autowired
+    private AuthService authService;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        user = fixtures.user("commenter", User.Role.READER);
+        post = postRepository.save(Post.builder()
+                .title("Post commenté")
+                .content("Contenu")
+                .author(user)
+                .build());
+
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < 75; i++) {
+            comments.add(Comment.builder().post(post).user(user).content("Commentaire " + i).build());
+        }
+        commentRepository.saveAll(comments);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void walkingAllPagesReturnsEveryCommentOnce() {
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        do {
+            CursorPage<CommentResponse> page = commentService.getComments(post.getId(), cursor, 20, null);
+            page.getItems().forEach(comment -> assertTrue(seen.add(comment.getId())));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(75, seen.size());
+    }
+
+    @Test
+    void firstPageIsServedFromTheTailCacheAndFollowsWrites() {
+        commentService.getComments(post.getId(), null, 20, null); // remplit le cache
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        CursorPage<CommentResponse> cached = commentService.getComments(post.getId(), null, 20, user.getEmail());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(20, cached.getItems().size());
+        assertTrue(cached.isHasMore());
+        assertTrue(cached.getItems().get(0).isCanDelete());
+
+        CommentResponse added = commentService.addComment(post.getId(), new CommentRequest("Nouveau"), user.getEmail());
+        CursorPage<CommentResponse> afterAdd = commentService.getComments(post.getId(), null, 20, null);
+        assertEquals(added.getId(), afterAdd.getItems().get(0).getId());
+        assertFalse(afterAdd.getItems().get(0).isCanDelete());
+
+        commentService.deleteComment(added.getId(), user.getEmail());
+        CursorPage<CommentResponse> afterDelete = commentService.getComments(post.getId(), null, 20, null);
+        assertNotEquals(added.getId(), afterDelete.getItems().get(0).getId());
+        assertEquals(20, afterDelete.getItems().size());
+    }
+
+    @Test
+    void profileChangeDropsTheCachedAuthor() {
+        commentService.getComments(post.getId(), null, 20, null); // remplit le cache
+
+        UpdateProfileRequest request = new UpdateProfileRequest();
+        request.setUsername("renomme");
+        request.setAvatar("nouveau.png");
+        authService.updateProfile(request, jwtService.generateToken(user));
+
+        CommentResponse first = commentService.getComments(post.getId(), null, 20, null).getItems().get(0);
+        assertEquals("renomme", first.getAuthor().getUsername());
+        assertEquals("nouveau.png", first.getAuthor().getAvatar());
+    }
+
+    @Test
+    void onlyWritesOnTheSamePostDiscardAStaleFill() {
+        Post other = postRepository.save(Post.builder().title("Autre").content("Contenu").author(user).build());
+
+        long readGeneration = commentTailCache.generation(post.getId());
+        long otherGeneration = commentTailCache.generation(other.getId());
+        commentService.addComment(other.getId(), new CommentRequest("Ailleurs"), user.getEmail());
+
+        commentTailCache.store(post.getId(), List.of(), true, readGeneration);
+        assertNotNull(commentTailCache.firstPage(post.getId(), 20));
+        commentTailCache.store(other.getId(), List.of(), true, otherGeneration);
+        assertNull(commentTailCache.firstPage(other.getId(), 20));
+    }
+}
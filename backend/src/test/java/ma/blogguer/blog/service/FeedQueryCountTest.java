@@ -0,0 +1,140 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.Like;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.LikeRepository;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Le nombre de requêtes SQL d'une page du fil ou d'une liste de posts
+ * ne doit pas dépendre du nombre de posts renvoyés.
+ */
+@SpringBootTest
+class FeedQueryCountTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        User author = fixtures.user("author", User.Role.BLOGGER);
+        reader = fixtures.user("reader", User.Role.BLOGGER);
+
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            posts.add(Post.builder()
+                    .title("Post " + i)
+                    .content("Contenu " + i)
+                    .category(i < 5 ? "news" : "tech")
+                    .tags(List.of("java", "tag" + i))
+                    .author(author)
+                    .build());
+        }
+        posts = postRepository.saveAll(posts);
+
+        // Un post sur deux est liké par le lecteur
+        for (int i = 0; i < posts.size(); i += 2) {
+            likeRepository.save(Like.builder().user(reader).post(posts.get(i)).build());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void authenticatedFeedQueryCountIsIndependentOfPageSize() {
+        postService.getFeed(null, 1, reader.getEmail()); // lecteur en cache
+        long smallPage = statementsFor(5);
+        long largePage = statementsFor(40);
+
+        assertEquals(smallPage, largePage);
+    }
+
+    @Test
+    void likedFlagsAreResolvedForTheWholePage() {
+        CursorPage<PostResponse> page = postService.getFeed(null, 40, reader.getEmail());
+
+        long liked = page.getItems().stream().filter(PostResponse::isLikedByCurrentUser).count();
+        assertEquals(20, liked);
+        assertTrue(page.getItems().stream().allMatch(post -> post.getTags().size() == 2));
+    }
+
+    @Test
+    void entityListingsLoadTagsAndAuthorsInFixedQueries() {
+        assertEquals(categoryListingStatements("news"), categoryListingStatements("tech"));
+    }
+
+    @Test
+    void postDetailIsASingleQuery() {
+        Long postId = postRepository.findAll().get(0).getId();
+        Statistics stats = statistics();
+        stats.clear();
+
+        PostResponse post = postService.getPostById(postId);
+
+        assertEquals(2, post.getTags().size());
+        assertNotNull(post.getAuthor().getUsername());
+        assertEquals(1, stats.getPrepareStatementCount());
+    }
+
+    private long categoryListingStatements(String category) {
+        Statistics stats = statistics();
+        stats.clear();
+        transactionTemplate.executeWithoutResult(status -> {
+            for (Post post : postRepository.findByCategory(category)) {
+                assertEquals(2, post.getTags().size());
+                assertNotNull(post.getAuthor().getDisplayUsername());
+            }
+        });
+        return stats.getPrepareStatementCount();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private long statementsFor(int pageSize) {
+        Statistics stats = statistics();
+        stats.clear();
+        CursorPage<PostResponse> page = postService.getFeed(null, pageSize, reader.getEmail());
+        assertEquals(pageSize, page.getItems().size());
+        return stats.getPrepareStatementCount();
+    }
+}
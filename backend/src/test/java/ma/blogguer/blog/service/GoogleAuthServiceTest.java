@@ -0,0 +1,173 @@
+package ma.blogguer.blog.service;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import ma.blogguer.blog.dto.OAuth2UserInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoogleAuthServiceTest {
+
+    private static final String CLIENT_ID = "test-client-id";
+
+    private final Map<String, PublicKey> published = new HashMap<>();
+    private final AtomicInteger fetches = new AtomicInteger();
+    private KeyPair current;
+    private GoogleAuthService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        current = rsaKeyPair();
+        published.put("k1", current.getPublic());
+        service = new GoogleAuthService(() -> {
+            fetches.incrementAndGet();
+            return new HashMap<>(published);
+        });
+        ReflectionTestUtils.setField(service, "googleClientId", CLIENT_ID);
+        ReflectionTestUtils.setField(service, "clockSkewSeconds", 60L);
+        ReflectionTestUtils.setField(service, "minReloadIntervalMs", 60_000L);
+        service.init();
+    }
+
+    @Test
+    void validTokenIsVerifiedLocallyWithCachedKeys() {
+        for (int i = 0; i < 3; i++) {
+            OAuth2UserInfo info = service.validateGoogleToken(token("k1", current.getPrivate(), CLIENT_ID,
+                    "https://accounts.google.com", 3600));
+            assertEquals("google-sub", info.getId());
+            assertEquals("ada@gmail.com", info.getEmail());
+            assertEquals("Ada", info.getGivenName());
+            assertEquals("google", info.getProvider());
+        }
+        // Un seul chargement du JWKS pour toutes les connexions
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void audienceIssuerExpiryAndSignatureAreChecked() throws Exception {
+        assertRejected(token("k1", current.getPrivate(), "other-client", "accounts.google.com", 3600));
+        assertRejected(token("k1", current.getPrivate(), CLIENT_ID, "https://evil.example", 3600));
+        assertRejected(token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", -3600));
+        assertRejected(token("k1", rsaKeyPair().getPrivate(), CLIENT_ID, "accounts.google.com", 3600));
+        assertRejected("pas.un.jwt");
+    }
+
+    @Test
+    void unknownKidReloadsTheKeySetAtMostOncePerInterval() throws Exception {
+        service.validateGoogleToken(token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600));
+
+        // Rotation chez Google : nouvelle clé k2, une fois l'intervalle minimal écoulé
+        KeyPair rotated = rsaKeyPair();
+        published.put("k2", rotated.getPublic());
+        ReflectionTestUtils.setField(service, "lastReloadAttempt", 0L);
+        assertEquals("google-sub", service.validateGoogleToken(
+                token("k2", rotated.getPrivate(), CLIENT_ID, "accounts.google.com", 3600)).getId());
+        assertEquals(2, fetches.get());
+
+        // Kid inconnu dans l'intervalle : rejet sans nouvel appel
+        assertRejected(token("k3", rotated.getPrivate(), CLIENT_ID, "accounts.google.com", 3600));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void keysWarmedAtStartupServeTheFirstLogin() {
+        ReflectionTestUtils.setField(service, "warmOnStartup", true);
+        service.warmKeys();
+        assertEquals(1, fetches.get());
+
+        service.validateGoogleToken(token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void startupWarmUpDoesNotBlockTheReadyEvent() throws Exception {
+        ReflectionTestUtils.setField(service, "warmOnStartup", true);
+        CountDownLatch jwksAnswers = new CountDownLatch(1);
+        CountDownLatch loaded = new CountDownLatch(1);
+        ReflectionTestUtils.setField(service, "keySource", (GoogleKeySource) () -> {
+            try {
+                jwksAnswers.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            loaded.countDown();
+            return new HashMap<>(published);
+        });
+
+        // Le JWKS ne répond pas encore : l'écouteur rend la main quand même
+        service.warmKeysInBackground();
+        assertEquals(1, loaded.getCount());
+
+        jwksAnswers.countDown();
+        assertTrue(loaded.await(5, TimeUnit.SECONDS));
+        assertEquals("google-sub", service.validateGoogleToken(
+                token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600)).getId());
+    }
+
+    @Test
+    void failedWarmUpDoesNotDelayTheFirstLoginReload() {
+        ReflectionTestUtils.setField(service, "warmOnStartup", true);
+        ReflectionTestUtils.setField(service, "keySource", (GoogleKeySource) () -> {
+            throw new IllegalStateException("JWKS indisponible");
+        });
+        service.warmKeys();
+
+        ReflectionTestUtils.setField(service, "keySource", (GoogleKeySource) () -> new HashMap<>(published));
+        assertEquals("google-sub", service.validateGoogleToken(
+                token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600)).getId());
+    }
+
+    @Test
+    void failedRefreshKeepsPreviousKeys() {
+        service.validateGoogleToken(token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600));
+        GoogleKeySource failing = () -> {
+            throw new IllegalStateException("JWKS indisponible");
+        };
+        ReflectionTestUtils.setField(service, "keySource", failing);
+
+        service.refreshKeys();
+        assertEquals("google-sub", service.validateGoogleToken(
+                token("k1", current.getPrivate(), CLIENT_ID, "accounts.google.com", 3600)).getId());
+    }
+
+    private void assertRejected(String token) {
+        RuntimeException e = assertThrows(RuntimeException.class, () -> service.validateGoogleToken(token));
+        assertEquals("Token Google invalide", e.getMessage());
+    }
+
+    private static String token(String kid, PrivateKey key, String audience, String issuer, long expiresInSeconds) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setHeaderParam("kid", kid)
+                .setSubject("google-sub")
+                .setAudience(audience)
+                .setIssuer(issuer)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + expiresInSeconds * 1000))
+                .claim("email", "ada@gmail.com")
+                .claim("name", "Ada Lovelace")
+                .claim("given_name", "Ada")
+                .signWith(key, SignatureAlgorithm.RS256)
+                .compact();
+    }
+
+    private static KeyPair rsaKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        return generator.generateKeyPair();
+    }
+}
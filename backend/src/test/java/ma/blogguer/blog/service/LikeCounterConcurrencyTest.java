@@ -0,0 +1,227 @@
+package ma.blogguer.blog.service;
+
+import ma.blogguer.blog.dto.LikeResponse;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.LikeRepository;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Des milliers de likes/unlikes concurrents, avec des écritures différées qui
+ * tournent en parallèle, doivent aboutir au compteur exact.
+ */
+@SpringBootTest
+class LikeCounterConcurrencyTest {
+
+    private static final int USERS = 1000;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeRepository likeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void parallelTogglesProduceExactCount() throws Exception {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(TestFixtures.newUser("liker" + i, User.Role.READER));
+        }
+        users = userRepository.saveAll(users);
+        Post post = postRepository.save(Post.builder()
+                .title("Post viral")
+                .content("Contenu")
+                .author(users.get(0))
+                .build());
+        Long postId = post.getId();
+
+        // Chaque utilisateur clique 1 à 4 fois : il aime le post si le nombre est impair
+        Random random = new Random(7);
+        int[] clicks = new int[USERS];
+        int expected = 0;
+        for (int i = 0; i < USERS; i++) {
+            clicks[i] = 1 + random.nextInt(4);
+            if (clicks[i] % 2 == 1) {
+                expected++;
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread flusher = new Thread(() -> {
+            while (running.get()) {
+                likeCounterService.flush();
+            }
+        });
+        flusher.start();
+
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            Long userId = users.get(i).getId();
+            int count = clicks[i];
+            tasks.add(pool.submit(() -> {
+                for (int c = 0; c < count; c++) {
+                    likeService.toggleLike(postId, userId);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+        running.set(false);
+        flusher.join();
+        likeCounterService.flush();
+
+        Integer persisted = jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, postId);
+        assertEquals(expected, persisted);
+        assertEquals(expected, likeRepository.countByPostId(postId));
+        assertEquals(0, likeCounterService.pendingDelta(postId));
+    }
+
+    @Test
+    void clickStormFromOneUserNeverViolatesTheUniqueConstraint() throws Exception {
+        User user = fixtures.user("storm", User.Role.READER);
+        Long postId = postRepository.save(Post.builder()
+                .title("Post")
+                .content("Contenu")
+                .author(user)
+                .build()).getId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<Boolean>> clicks = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            clicks.add(pool.submit(() -> likeService.toggleLike(postId, user.getId())));
+        }
+        for (Future<Boolean> click : clicks) {
+            click.get(); // une exception ferait échouer le test
+        }
+        pool.shutdown();
+        likeCounterService.flush();
+
+        Integer persisted = jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, postId);
+        assertEquals(likeRepository.countByPostId(postId), (long) persisted);
+    }
+
+    @Test
+    void failedFlushKeepsEveryDeltaAndAppliesItOnce() {
+        User user = fixtures.user("flusher", User.Role.READER);
+        Long healthy = postRepository.save(Post.builder().title("Sain").content("Contenu").author(user).build()).getId();
+        Long broken = postRepository.save(Post.builder().title("Plein").content("Contenu").author(user).build()).getId();
+        likeCounterService.flush();
+        // likes + 1 dépasse la capacité de la colonne : le lot entier échoue
+        jdbcTemplate.update("UPDATE posts SET likes = ? WHERE id = ?", Integer.MAX_VALUE, broken);
+
+        for (int i = 0; i < 3; i++) {
+            likeCounterService.increment(healthy);
+        }
+        likeCounterService.increment(broken);
+        likeCounterService.flush();
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, healthy));
+        assertEquals(3, likeCounterService.pendingDelta(healthy));
+        assertEquals(3, likeCounterService.currentLikes(healthy, 0));
+
+        jdbcTemplate.update("UPDATE posts SET likes = 0 WHERE id = ?", broken);
+        likeCounterService.flush();
+
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, healthy));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, broken));
+        Map<?, ?> pending = (Map<?, ?>) ReflectionTestUtils.getField(likeCounterService, "pending");
+        assertFalse(pending.containsKey(healthy));
+        assertFalse(pending.containsKey(broken));
+    }
+
+    @Test
+    void likesOfAPostAreReadableWithoutAnOpenSession() {
+        User user = fixtures.user("fan", User.Role.READER);
+        Long postId = postRepository.save(Post.builder().title("Aimé").content("Contenu").author(user).build()).getId();
+        likeService.toggleLike(postId, user.getId());
+
+        // Pas de transaction ni d'open-in-view ici : l'utilisateur doit venir avec le like
+        List<LikeResponse> likes = likeService.getLikesForPost(postId);
+        assertEquals(1, likes.size());
+        assertEquals(user.getDisplayUsername(), likes.get(0).getUsername());
+    }
+
+    @Test
+    void readersNeverCountAFlushedDeltaTwice() throws Exception {
+        User user = fixtures.user("watcher", User.Role.READER);
+        Long postId = postRepository.save(Post.builder().title("Observé").content("Contenu").author(user).build()).getId();
+
+        AtomicInteger added = new AtomicInteger();
+        AtomicInteger overCounted = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread reader = new Thread(() -> {
+            while (running.get()) {
+                Integer persisted = jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, postId);
+                int displayed = likeCounterService.currentLikes(postId, persisted);
+                // Tout ce qui est affiché a déjà été ajouté : au-delà, une variation compte deux fois
+                if (displayed > added.get()) {
+                    overCounted.incrementAndGet();
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2000; i++) {
+            added.incrementAndGet();
+            likeCounterService.increment(postId);
+            likeCounterService.flush();
+        }
+        running.set(false);
+        reader.join();
+
+        assertEquals(0, overCounted.get());
+        assertEquals(2000, jdbcTemplate.queryForObject("SELECT likes FROM posts WHERE id = ?", Integer.class, postId));
+    }
+
+    @Test
+    void likingAMissingPostFails() {
+        User user = fixtures.user("ghost", User.Role.READER);
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> likeService.toggleLike(-1L, user.getId()));
+        assertEquals("Post not found", e.getMessage());
+    }
+}
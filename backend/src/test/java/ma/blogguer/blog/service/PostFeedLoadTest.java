@@ -0,0 +1,149 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Vérifie que le coût d'une page du fil ne dépend pas de la taille de la table :
+ * même nombre d'entités chargées et latence comparable à 500 et à 5000 posts.
+ */
+@SpringBootTest
+class PostFeedLoadTest {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int ITERATIONS = 30;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = fixtures.user("feed-author", User.Role.BLOGGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void walkingTheFeedReturnsEveryPostOnceInOrder() {
+        seed(137);
+
+        Set<Long> seen = new HashSet<>();
+        PostResponse previous = null;
+        String cursor = null;
+        do {
+            CursorPage<PostResponse> page = postService.getFeed(cursor, PAGE_SIZE, null);
+            assertTrue(page.getItems().size() <= PAGE_SIZE);
+            for (PostResponse post : page.getItems()) {
+                assertTrue(seen.add(post.getId()), "post renvoyé deux fois: " + post.getId());
+                if (previous != null) {
+                    int cmp = post.getDate().compareTo(previous.getDate());
+                    assertTrue(cmp < 0 || (cmp == 0 && post.getId() < previous.getId()));
+                }
+                previous = post;
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(137, seen.size());
+    }
+
+    @Test
+    void pageCostStaysFlatAsTableGrows() {
+        seed(500);
+        long smallLoads = entitiesLoadedForDeepPage();
+        long smallLatency = medianDeepPageNanos();
+
+        seed(4500);
+        long largeLoads = entitiesLoadedForDeepPage();
+        long largeLatency = medianDeepPageNanos();
+
+        assertEquals(smallLoads, largeLoads, "le nombre d'entités chargées doit rester constant");
+        assertTrue(largeLatency <= smallLatency * 5 + 5_000_000,
+                "la latence d'une page ne doit pas croître avec la table (500 posts: "
+                        + smallLatency / 1000 + " µs, 5000 posts: " + largeLatency / 1000 + " µs)");
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getFeed("pas-un-curseur", PAGE_SIZE, null));
+    }
+
+    private long entitiesLoadedForDeepPage() {
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        String cursor = middleCursor();
+        stats.clear();
+        postService.getFeed(cursor, PAGE_SIZE, null);
+        return stats.getEntityLoadCount();
+    }
+
+    private long medianDeepPageNanos() {
+        String cursor = middleCursor();
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            postService.getFeed(cursor, PAGE_SIZE, null);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private String middleCursor() {
+        List<Post> all = postRepository.findAll();
+        all.sort((a, b) -> {
+            int cmp = b.getCreatedAt().compareTo(a.getCreatedAt());
+            return cmp != 0 ? cmp : b.getId().compareTo(a.getId());
+        });
+        Post middle = all.get(all.size() / 2);
+        return new PageCursor(middle.getCreatedAt(), middle.getId()).encode();
+    }
+
+    private void seed(int count) {
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(Post.builder()
+                    .title("Post " + i)
+                    .content("Contenu du post " + i)
+                    .resume("Résumé " + i)
+                    .category("tech")
+                    .author(author)
+                    .build());
+        }
+        postRepository.saveAll(posts);
+    }
+}
@@ -0,0 +1,113 @@
+package ma.blogguer.blog.service;
+
+import ma.blogguer.blog.dto.CategoryCount;
+import ma.blogguer.blog.dto.PostImportReport;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.event.PostCreatedEvent;
+import ma.blogguer.blog.event.PostsImportedEvent;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "application.import.batch-size=2")
+@RecordApplicationEvents
+class PostImportTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private User admin;
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        admin = fixtures.user("importer", User.Role.ADMIN);
+        author = fixtures.user("archiviste", User.Role.BLOGGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void importsValidLinesInBatchesAndReportsRejectedOnes() throws Exception {
+        String body = String.join("\n",
+                "{\"title\":\"Archive 1\",\"content\":\"" + "mot ".repeat(450) + "\",\"category\":\"Histoire\","
+                        + "\"tags\":[\"archive\",\"import\"],\"authorEmail\":\"archiviste@test.ma\","
+                        + "\"createdAt\":\"2020-01-15T10:00:00\"}",
+                "{\"title\":\"Archive 2\",\"content\":\"court\",\"category\":\"Histoire\"}",
+                "pas du json",
+                "",
+                "{\"title\":\"Archive 3\",\"content\":\"x\",\"authorEmail\":\"inconnu@test.ma\"}",
+                "{\"title\":\"Archive 4\",\"content\":\"texte\",\"category\":\"Voyage\",\"tags\":[\"import\"]}",
+                "{\"content\":\"sans titre\"}",
+                "{\"title\":\"Archive 5\",\"content\":\"fin\",\"category\":\"Histoire\"}");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        PostImportReport report = postImportService.importNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), admin.getEmail(), out);
+
+        assertEquals(8, report.getLines());
+        assertEquals(4, report.getImported());
+        assertEquals(3, report.getFailed());
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertTrue(lines.get(lines.size() - 1).startsWith("{\"type\":\"done\""));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"line\":3") && line.contains("JSON invalide")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"line\":5") && line.contains("inconnu@test.ma")));
+        assertTrue(lines.stream().anyMatch(line -> line.contains("\"line\":7") && line.contains("title manquant")));
+        assertTrue(lines.stream().filter(line -> line.contains("\"type\":\"progress\"")).count() >= 2);
+
+        // Un événement par lot de deux posts, aucun par post
+        assertEquals(2, events.stream(PostsImportedEvent.class).count());
+        assertEquals(0, events.stream(PostCreatedEvent.class).count());
+
+        List<PostResponse> imported = postService.getMyPosts(author.getEmail());
+        assertEquals(1, imported.size());
+        PostResponse archive = imported.get(0);
+        assertEquals("Archive 1", archive.getTitle());
+        assertEquals(List.of("archive", "import"), archive.getTags());
+        assertEquals(3, archive.getReadTime());
+        assertEquals(2020, archive.getDate().getYear());
+        assertEquals(3, postService.getMyPosts(admin.getEmail()).size());
+
+        List<CategoryCount> categories = postService.getCategories();
+        assertEquals(3, count(categories, "Histoire"));
+        assertEquals(1, count(categories, "Voyage"));
+        assertEquals(2, postService.searchPosts("import", null, 10, null).getItems().size());
+        // Fil par tag dans l'ordre du fil principal : l'archive de 2020 passe après le post du jour
+        assertEquals(List.of("Archive 4", "Archive 1"), postService.getTagFeed(List.of("import"), null, null, 10, null)
+                .getItems().stream().map(PostResponse::getTitle).toList());
+    }
+
+    private long count(List<CategoryCount> categories, String category) {
+        return categories.stream()
+                .filter(c -> c.getCategory().equals(category))
+                .mapToLong(CategoryCount::getCount)
+                .findFirst()
+                .orElse(0);
+    }
+}
@@ -0,0 +1,101 @@
+package ma.blogguer.blog.service;
+
+import ma.blogguer.blog.dto.CursorPage;
+import ma.blogguer.blog.dto.PostRequest;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PostSearchTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private PostSearchService postSearchService;
+
+    private User author;
+
+    @BeforeEach
+    void setUp() {
+        author = fixtures.user("searcher", User.Role.BLOGGER);
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void createdPostsAreSearchableAndPaged() {
+        for (int i = 0; i < 3; i++) {
+            postService.createPost(request("Hibernate astuce " + i, List.of("jpa")), author.getEmail());
+        }
+        postService.createPost(request("Angular signals", List.of("frontend")), author.getEmail());
+
+        CursorPage<PostResponse> first = postService.searchPosts("hibernate", null, 2, null);
+        assertEquals(2, first.getItems().size());
+        assertTrue(first.isHasMore());
+        assertEquals("searcher", first.getItems().get(0).getAuthor().getUsername());
+
+        CursorPage<PostResponse> second = postService.searchPosts("hibernate", first.getNextCursor(), 2, null);
+        assertEquals(1, second.getItems().size());
+        assertFalse(second.isHasMore());
+
+        assertEquals("Angular signals", postService.searchPosts("front*", null, 10, null).getItems().get(0).getTitle());
+        assertTrue(postService.searchPosts("   ", null, 10, null).getItems().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> postService.searchPosts("jpa", "abc", 10, null));
+    }
+
+    @Test
+    void tagFeedFiltersWithAllOrAnyAndCountsPopularTags() {
+        PostResponse both = postService.createPost(request("Kafka et ZooKeeper", List.of("kafka", "zookeeper")), author.getEmail());
+        PostResponse kafkaOnly = postService.createPost(request("Kafka seul", List.of("Kafka")), author.getEmail());
+        postService.createPost(request("Sans rapport", List.of("voyage")), author.getEmail());
+
+        CursorPage<PostResponse> all = postService.getTagFeed(List.of("kafka", "zookeeper"), "all", null, 10, null);
+        assertEquals(List.of(both.getId()), all.getItems().stream().map(PostResponse::getId).toList());
+
+        CursorPage<PostResponse> first = postService.getTagFeed(List.of("kafka", "zookeeper"), null, null, 1, null);
+        assertEquals(List.of(kafkaOnly.getId()), first.getItems().stream().map(PostResponse::getId).toList());
+        CursorPage<PostResponse> second = postService.getTagFeed(List.of("kafka", "zookeeper"), "any", first.getNextCursor(), 1, null);
+        assertEquals(List.of(both.getId()), second.getItems().stream().map(PostResponse::getId).toList());
+        assertFalse(second.isHasMore());
+
+        assertTrue(postService.getPopularTags(50).stream()
+                .anyMatch(tag -> tag.getTag().equals("kafka") && tag.getCount() >= 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> postService.getTagFeed(List.of("kafka"), "some", null, 10, null));
+    }
+
+    @Test
+    void rebuildIndexesExistingRows() {
+        postService.createPost(request("Reconstruction depuis la base", List.of()), author.getEmail());
+        postSearchService.rebuild();
+
+        assertEquals(1, postService.searchPosts("reconstruction", null, 10, null).getItems().size());
+    }
+
+    private PostRequest request(String title, List<String> tags) {
+        PostRequest request = new PostRequest();
+        request.setTitle(title);
+        request.setContent("Contenu de test");
+        request.setResume("Résumé");
+        request.setCategory("Tech");
+        request.setTags(tags);
+        return request;
+    }
+}
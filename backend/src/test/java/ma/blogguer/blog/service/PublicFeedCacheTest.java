@@ -0,0 +1,114 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.dto.PostRequest;
+import ma.blogguer.blog.entity.Post;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class PublicFeedCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PublicFeedCache publicFeedCache;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeCounterService likeCounterService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private JsonMapper jsonMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User reader;
+    private Post liked;
+
+    @BeforeEach
+    void setUp() {
+        reader = fixtures.user("visitor", User.Role.BLOGGER);
+        for (int i = 0; i < 3; i++) {
+            liked = postRepository.save(Post.builder().title("Public " + i).content("Contenu").author(reader).build());
+        }
+        // Les posts insérés directement ne publient pas d'événement : on part d'un cache vide
+        publicFeedCache.onPostCreated(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(publicFeedCache, "counterStalenessMs", 5000L);
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void sharedBytesMatchTheRegularFeedAndOverlayTheUserLikes() {
+        likeService.toggleLike(liked.getId(), reader.getId());
+        // Compteur écrit en base tout de suite : le flush planifié ne tombe pas entre les deux lectures comparées
+        likeCounterService.flush();
+
+        PublicFeedCache.SharedFeedPage page = publicFeedCache.get(null, 10);
+        JsonNode anonymous = jsonMapper.readTree(publicFeedCache.renderList(page, null));
+        assertEquals(jsonMapper.readTree(jsonMapper.writeValueAsBytes(postService.getFeed(null, 10, null).getItems())), anonymous);
+
+        userLookupCache.findByEmail(reader.getEmail()); // lecteur en cache
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        assertSame(page, publicFeedCache.get(null, 10));
+        JsonNode personal = jsonMapper.readTree(publicFeedCache.renderPage(page, reader.getEmail()));
+        assertEquals(1, stats.getPrepareStatementCount()); // les likes de l'utilisateur uniquement
+
+        assertEquals(liked.getId().longValue(), personal.get("items").get(0).get("id").asLong());
+        assertTrue(personal.get("items").get(0).get("likedByCurrentUser").asBoolean());
+        assertFalse(personal.get("items").get(1).get("likedByCurrentUser").asBoolean());
+        assertFalse(personal.get("hasMore").asBoolean());
+    }
+
+    @Test
+    void countersMayLagWithinTheWindowButNewPostsShowImmediately() {
+        PublicFeedCache.SharedFeedPage page = publicFeedCache.get(null, 10);
+
+        likeService.toggleLike(liked.getId(), reader.getId());
+        assertSame(page, publicFeedCache.get(null, 10));
+
+        ReflectionTestUtils.setField(publicFeedCache, "counterStalenessMs", 0L);
+        PublicFeedCache.SharedFeedPage refreshed = publicFeedCache.get(null, 10);
+        assertNotSame(page, refreshed);
+        JsonNode first = jsonMapper.readTree(publicFeedCache.renderList(refreshed, null)).get(0);
+        assertEquals(1, first.get("likes").asInt());
+
+        PostRequest request = new PostRequest();
+        request.setTitle("Tout neuf");
+        request.setContent("Contenu");
+        postService.createPost(request, reader.getEmail());
+        JsonNode afterCreate = jsonMapper.readTree(publicFeedCache.renderList(publicFeedCache.get(null, 10), null));
+        assertEquals("Tout neuf", afterCreate.get(0).get("title").asString());
+    }
+}
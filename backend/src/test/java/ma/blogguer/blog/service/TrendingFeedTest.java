@@ -0,0 +1,158 @@
+package ma.blogguer.blog.service;
+
+import ma.blogguer.blog.dto.CommentRequest;
+import ma.blogguer.blog.dto.PostRequest;
+import ma.blogguer.blog.dto.PostResponse;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.PostRepositoryCustom;
+import ma.blogguer.blog.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class TrendingFeedTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private PostTrendingService postTrendingService;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    private User author;
+    private User reader;
+
+    @BeforeEach
+    void setUp() {
+        author = fixtures.user("trendsetter", User.Role.BLOGGER);
+        reader = fixtures.user("follower", User.Role.READER);
+        // Repart d'un classement sans les posts laissés par les autres tests
+        postTrendingService.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void interactionsRankPostsAndSurviveARebuild() {
+        Long quiet = create("Calme");
+        Long liked = create("Aimé");
+        Long discussed = create("Discuté");
+
+        likeService.toggleLike(liked, author.getId());
+        likeService.toggleLike(liked, reader.getId());
+        CommentRequest comment = new CommentRequest();
+        comment.setContent("Intéressant");
+        commentService.addComment(discussed, comment, reader.getEmail());
+
+        List<Long> expected = List.of(discussed, liked, quiet);
+        assertEquals(expected, ids(postService.getTrending(10, null)));
+
+        // Reconstruction depuis la base : même classement
+        postTrendingService.rebuild();
+        assertEquals(expected, ids(postService.getTrending(10, null)));
+        assertEquals(List.of(discussed), ids(postService.getTrending(1, null)));
+
+        // Deux unlikes ramènent le post au niveau d'une simple création
+        likeService.toggleLike(liked, author.getId());
+        likeService.toggleLike(liked, reader.getId());
+        assertEquals(discussed, ids(postService.getTrending(10, null)).get(0));
+        assertTrue(postService.getTrending(10, reader.getEmail()).stream().noneMatch(PostResponse::isLikedByCurrentUser));
+    }
+
+    @Test
+    void activityCommittedAfterTheSnapshotIsLeftToTheEvents() {
+        Long before = create("Avant");
+        List<Long> read = new ArrayList<>();
+        Long[] after = new Long[1];
+
+        postRepository.forEachActivitySince(LocalDateTime.now().minusHours(1), new PostRepositoryCustom.ActivityHandler() {
+            @Override
+            public void onSnapshot() {
+                assertTrue(read.isEmpty());
+                after[0] = create("Après");
+            }
+
+            @Override
+            public void onActivity(long postId, PostRepositoryCustom.Activity activity, long atMillis) {
+                read.add(postId);
+            }
+        });
+
+        assertEquals(List.of(before), read);
+        assertNotNull(after[0]);
+    }
+
+    @Test
+    void activityCommittedDuringARebuildIsCountedOnce() {
+        Long discussed = create("Discuté");
+        CommentRequest comment = new CommentRequest();
+        comment.setContent("Intéressant");
+        commentService.addComment(discussed, comment, reader.getEmail());
+        Long[] liked = new Long[1];
+
+        // Création et likes validés une fois le tampon ouvert, juste avant la requête :
+        // lus par la requête et reçus en événements, ils ne doivent compter qu'une fois
+        PostRepository duringRebuild = (PostRepository) Proxy.newProxyInstance(
+                PostRepository.class.getClassLoader(), new Class<?>[] { PostRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("forEachActivitySince")) {
+                        liked[0] = create("Aimé");
+                        likeService.toggleLike(liked[0], author.getId());
+                        likeService.toggleLike(liked[0], reader.getId());
+                    }
+                    try {
+                        return method.invoke(postRepository, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+        ReflectionTestUtils.setField(postTrendingService, "postRepository", duringRebuild);
+        try {
+            postTrendingService.rebuild();
+        } finally {
+            ReflectionTestUtils.setField(postTrendingService, "postRepository", postRepository);
+        }
+
+        // 1 + 3 pour le post commenté, 1 + 2 × 1 pour le post aimé (6 s'il était compté deux fois)
+        assertEquals(List.of(discussed, liked[0]), ids(postService.getTrending(10, null)));
+    }
+
+    private Long create(String title) {
+        PostRequest request = new PostRequest();
+        request.setTitle(title);
+        request.setContent("Contenu");
+        request.setCategory("Tendance");
+        return postService.createPost(request, author.getEmail()).getId();
+    }
+
+    private static List<Long> ids(List<PostResponse> posts) {
+        return posts.stream().map(PostResponse::getId).toList();
+    }
+}
@@ -0,0 +1,91 @@
+package ma.blogguer.blog.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.support.TestFixtures;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class UserLookupCacheTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private UserLookupCache userLookupCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        fixtures.cleanDatabase();
+    }
+
+    @Test
+    void repeatedLookupsHitTheCacheUntilEvicted() {
+        User newUser = TestFixtures.newUser("cached", User.Role.READER);
+        newUser.setAvatar("avant.png");
+        User user = userRepository.save(newUser);
+        userLookupCache.evict(user);
+
+        assertEquals("avant.png", userLookupCache.getByEmail("cached@test.ma").getAvatar());
+
+        Statistics stats = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        stats.clear();
+        long hits = userLookupCache.stats().hitCount();
+        assertEquals(user.getId(), userLookupCache.getByEmail("cached@test.ma").getId());
+        assertEquals(0, stats.getPrepareStatementCount());
+        assertEquals(hits + 1, userLookupCache.stats().hitCount());
+
+        user.setAvatar("apres.png");
+        userRepository.save(user);
+        userLookupCache.evict(user);
+
+        assertEquals("apres.png", userLookupCache.getByEmail("cached@test.ma").getAvatar());
+    }
+
+    @Test
+    void evictionInsideATransactionWaitsForTheCommit() {
+        User newUser = TestFixtures.newUser("tx", User.Role.READER);
+        newUser.setAvatar("avant.png");
+        User user = userRepository.save(newUser);
+        userLookupCache.evict(user);
+        assertEquals("avant.png", userLookupCache.getByEmail("tx@test.ma").getAvatar());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            user.setAvatar("apres.png");
+            userRepository.saveAndFlush(user);
+            userLookupCache.evict(user);
+            // Lecture concurrente avant le commit : elle remet l'ancienne ligne en cache
+            assertEquals("avant.png", CompletableFuture
+                    .supplyAsync(() -> userLookupCache.getByEmail("tx@test.ma").getAvatar()).join());
+        });
+
+        assertEquals("apres.png", userLookupCache.getByEmail("tx@test.ma").getAvatar());
+    }
+
+    @Test
+    void unknownEmailIsNotFound() {
+        assertTrue(userLookupCache.findByEmail("inconnu@test.ma").isEmpty());
+        assertThrows(RuntimeException.class, () -> userLookupCache.getByEmail("inconnu@test.ma"));
+    }
+}
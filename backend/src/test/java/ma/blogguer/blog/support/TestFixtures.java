@@ -0,0 +1,61 @@
+package ma.blogguer.blog.support;
+
+import lombok.RequiredArgsConstructor;
+import ma.blogguer.blog.entity.User;
+import ma.blogguer.blog.repository.CategoryStatRepository;
+import ma.blogguer.blog.repository.CommentRepository;
+import ma.blogguer.blog.repository.LikeRepository;
+import ma.blogguer.blog.repository.PostRepository;
+import ma.blogguer.blog.repository.UserRepository;
+import ma.blogguer.blog.service.UserLookupCache;
+import ma.blogguer.blog.service.UserStateCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Données communes aux tests d'intégration : création d'utilisateurs et remise à zéro
+ * de la base (dans l'ordre des clés étrangères) et des caches utilisateurs.
+ */
+@Component
+@RequiredArgsConstructor
+public class TestFixtures {
+
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final CategoryStatRepository categoryStatRepository;
+    private final UserLookupCache userLookupCache;
+    private final UserStateCache userStateCache;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Utilisateur non enregistré : name@test.ma, mot de passe factice
+    public static User newUser(String name, User.Role role) {
+        return User.builder()
+                .username(name)
+                .email(name + "@test.ma")
+                .password("x")
+                .role(role)
+                .enabled(true)
+                .build();
+    }
+
+    public User user(String name, User.Role role) {
+        User user = userRepository.save(newUser(name, role));
+        userLookupCache.evict(user);
+        return user;
+    }
+
+    public void cleanDatabase() {
+        commentRepository.deleteAllInBatch();
+        likeRepository.deleteAllInBatch();
+        jdbcTemplate.update("DELETE FROM post_tags");
+        postRepository.deleteAllInBatch();
+        categoryStatRepository.deleteAllInBatch();
+        for (User user : userRepository.findAll()) {
+            userLookupCache.evict(user);
+            userStateCache.invalidate(user.getId());
+        }
+        userRepository.deleteAllInBatch();
+    }
+}
@@ -0,0 +1,66 @@
+package ma.blogguer.blog.util;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheLoadsTest {
+
+    @Test
+    void concurrentCallersShareOneLoadOnVirtualThreads() throws Exception {
+        AsyncCache<String, Integer> cache = Caffeine.newBuilder().buildAsync();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<Integer>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 100; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return CacheLoads.getOrLoad(cache, "k", key -> {
+                        loads.incrementAndGet();
+                        sleep(50);
+                        return 42;
+                    });
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(42, result.get());
+            }
+        }
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void failedLoadIsRethrownAndNotCached() {
+        AsyncCache<String, Integer> cache = Caffeine.newBuilder().buildAsync();
+        assertThrows(IllegalStateException.class, () -> CacheLoads.getOrLoad(cache, "k", key -> {
+            throw new IllegalStateException("boom");
+        }));
+        assertEquals(7, CacheLoads.getOrLoad(cache, "k", key -> 7));
+
+        CacheLoads.removeIfSame(cache, "k", 8);
+        assertEquals(7, CacheLoads.getOrLoad(cache, "k", key -> 9));
+        CacheLoads.removeIfSame(cache, "k", 7);
+        assertEquals(9, CacheLoads.getOrLoad(cache, "k", key -> 9));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ma.blogguer.blog.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void behavesLikeAHashSetAcrossRehashes() {
+        LongHashSet set = new LongHashSet(2);
+        Set<Long> reference = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            long value = random.nextInt(5_000) - 100;
+            assertEquals(reference.add(value), set.add(value));
+        }
+
+        assertEquals(reference.size(), set.size());
+        for (long value = -200; value < 5_200; value++) {
+            assertEquals(reference.contains(value), set.contains(value));
+        }
+        assertEquals(reference.size(), set.toArray().length);
+    }
+
+    @Test
+    void handlesZero() {
+        LongHashSet set = new LongHashSet();
+        assertFalse(set.contains(0));
+        assertTrue(set.add(0));
+        assertFalse(set.add(0));
+        assertTrue(set.contains(0));
+        assertEquals(1, set.size());
+    }
+}
@@ -0,0 +1,65 @@
+package ma.blogguer.blog.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextStatsTest {
+
+    @Test
+    void countsWordsAcrossUnicodeWhitespace() {
+        TextStats stats = TextStats.of("  Un\tdeux trois\u00A0quatre\n\ncinq\u2009 ");
+
+        assertEquals(5, stats.getWords());
+        assertEquals(21, stats.getCharacters());
+        assertEquals(1, stats.getReadTimeMinutes());
+    }
+
+    @Test
+    void htmlTagsSeparateWordsAndAreNotCounted() {
+        TextStats stats = TextStats.of("<p>Bonjour</p><p>le <b>monde</b></p><img src=\"a.png\"><IMG src='b.png'/>"
+                + "<pre><code>x = 1</code></pre> a < b");
+
+        assertEquals(9, stats.getWords()); // Bonjour le monde x = 1 a < b
+        assertEquals(2, stats.getImages());
+        assertEquals(1, stats.getCodeBlocks());
+    }
+
+    @Test
+    void markdownImagesAndFencedBlocks() {
+        String markdown = """
+                # Titre
+
+                ![schéma](schema.png)
+
+                ```java
+                int x = 1;
+                ```
+
+                ```
+                non refermé
+                """;
+        TextStats stats = TextStats.of(markdown);
+
+        assertEquals(1, stats.getImages());
+        assertEquals(2, stats.getCodeBlocks());
+        // # Titre ![schéma](schema.png) int x = 1; non refermé ; la langue "java" n'est pas comptée
+        assertEquals(9, stats.getWords());
+    }
+
+    @Test
+    void supplementaryCharactersAreSingleCharacters() {
+        TextStats stats = TextStats.of("café 😀");
+
+        assertEquals(2, stats.getWords());
+        assertEquals(5, stats.getCharacters());
+    }
+
+    @Test
+    void emptyAndLongContents() {
+        assertSame(TextStats.EMPTY, TextStats.of(null));
+        assertEquals(0, TextStats.of("   \n ").getWords());
+        assertEquals(0, TextStats.of("").getReadTimeMinutes());
+        assertEquals(2, TextStats.of("mot ".repeat(201)).getReadTimeMinutes());
+    }
+}
@@ -33,6 +33,13 @@ export interface PostAuthor {
   email: string;
 }
 
+// Page renvoyée par les endpoints paginés par curseur (/search, /category/{category})
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+}
+
 // ✅ Interface pour créer un post
 export interface CreatePostRequest {
   title: string;
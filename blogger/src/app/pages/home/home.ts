@@ -20,6 +20,8 @@ export class Home implements OnInit {
 
   categories = ['Tous', 'Tech', 'Photo', 'Cuisine', 'Voyage', 'Lifestyle'];
   selectedCategory = 'Tous';
+  searchText = '';
+  hasMore = false;
   currentView: 'home' | 'create' = 'home';
 
   constructor(
@@ -31,7 +33,7 @@ export class Home implements OnInit {
     console.log('🏠 Home component initialisé');
     
     // 🔥 Charger les posts depuis la base de données
-    this.blogService.loadPosts();
+    this.reload();
     
     // S'abonner aux changements de posts
     this.blogService.posts$.subscribe(posts => {
@@ -41,35 +43,46 @@ export class Home implements OnInit {
       this.applyFilters();
       console.log('🔍 Posts après filtrage:', this.filteredPosts.length);
     });
+
+    this.blogService.hasMore$.subscribe(hasMore => this.hasMore = hasMore);
   }
 
   /* ================== SEARCH ================== */
+  // Recherche plein texte côté backend (/api/posts/search), sur tous les posts
   onSearch(query: string): void {
-    this.applyFilters(query);
+    this.searchText = query;
+    this.reload();
   }
 
   /* ================== CATEGORY ================== */
   filterByCategory(category: string): void {
     this.selectedCategory = category;
-    this.applyFilters();
+    this.reload();
   }
 
-  private applyFilters(search: string = ''): void {
-    let result = [...this.posts];
+  /* ================== PAGINATION ================== */
+  loadMore(): void {
+    this.blogService.loadMorePosts();
+  }
 
-    if (this.selectedCategory !== 'Tous') {
-      result = result.filter(p => p.category === this.selectedCategory);
+  private reload(): void {
+    const search = this.searchText.trim();
+    if (search) {
+      this.blogService.loadPosts({ search });
+    } else if (this.selectedCategory !== 'Tous') {
+      this.blogService.loadPosts({ category: this.selectedCategory });
+    } else {
+      this.blogService.loadPosts();
     }
+  }
 
-    if (search.trim()) {
-      const q = search.toLowerCase();
-      result = result.filter(p =>
-        p.title.toLowerCase().includes(q) ||
-        p.content.toLowerCase().includes(q)
-      );
+  // La recherche porte sur tous les posts : la catégorie affichée filtre ses résultats chargés
+  private applyFilters(): void {
+    if (this.searchText.trim() && this.selectedCategory !== 'Tous') {
+      this.filteredPosts = this.posts.filter(p => p.category === this.selectedCategory);
+    } else {
+      this.filteredPosts = this.posts;
     }
-
-    this.filteredPosts = result;
   }
 
   /* ================== POST ================== */
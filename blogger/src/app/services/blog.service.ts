@@ -1,16 +1,32 @@
 import { Injectable } from '@angular/core';
-import { HttpClient, HttpHeaders } from '@angular/common/http';
+import { HttpClient, HttpHeaders, HttpResponse } from '@angular/common/http';
 import { Observable, BehaviorSubject } from 'rxjs';
-import { tap } from 'rxjs/operators';
-import { Post, CreatePostRequest } from '../models/post';
+import { map, tap } from 'rxjs/operators';
+import { Post, CreatePostRequest, CursorPage } from '../models/post';
+
+// Filtre du fil affiché : fil complet, une catégorie, ou une recherche plein texte
+export interface PostFilter {
+  category?: string;
+  search?: string;
+}
 
 @Injectable({
   providedIn: 'root',
 })
 export class BlogService {
   private apiUrl = 'http://localhost:8082/api/posts';
+  // Une page à la fois : les suivantes sont chargées à la demande (loadMorePosts)
+  private pageSize = 20;
   private postsSubject = new BehaviorSubject<Post[]>([]);
   public posts$ = this.postsSubject.asObservable();
+  private hasMoreSubject = new BehaviorSubject<boolean>(false);
+  public hasMore$ = this.hasMoreSubject.asObservable();
+
+  private filter: PostFilter = {};
+  private nextCursor: string | null = null;
+  private loading = false;
+  // Incrémenté à chaque nouveau filtre : les réponses d'un filtre abandonné sont ignorées
+  private generation = 0;
 
   constructor(private http: HttpClient) {
     // ✅ Ne pas charger automatiquement les posts au démarrage
@@ -48,20 +64,76 @@ export class BlogService {
   //         });
   // }
 
-  loadPosts(): void {
-    console.log('🔄 Chargement des posts...');
+  // Première page du fil (ou de la catégorie, ou de la recherche) : la catégorie et la
+  // recherche sont faites par le backend, pas sur les seuls posts déjà chargés
+  loadPosts(filter: PostFilter = {}): void {
+    console.log('🔄 Chargement des posts...', filter);
+    this.filter = filter;
+    this.generation++;
+    this.loading = false;
+    this.nextCursor = null;
+    this.postsSubject.next([]);
+    this.hasMoreSubject.next(false);
+    this.loadPage(null);
+  }
+
+  // Page suivante du filtre courant (bouton « Voir plus »)
+  loadMorePosts(): void {
+    if (this.nextCursor && !this.loading) {
+      this.loadPage(this.nextCursor);
+    }
+  }
 
-    this.http.get<Post[]>(this.apiUrl, { headers: this.getHeaders() }).subscribe({
-      next: (posts) => {
-        console.log('✅ Posts chargés:', posts.length);
-        this.postsSubject.next(posts);
+  private loadPage(cursor: string | null): void {
+    const generation = this.generation;
+    this.loading = true;
+    this.fetchPage(cursor).subscribe({
+      next: (page) => {
+        if (generation !== this.generation) {
+          return;
+        }
+        this.loading = false;
+        this.nextCursor = page.nextCursor;
+        this.hasMoreSubject.next(page.nextCursor !== null);
+        this.postsSubject.next([...this.postsSubject.value, ...page.items]);
+        console.log('✅ Posts chargés:', this.postsSubject.value.length);
       },
       error: (err) => {
+        if (generation === this.generation) {
+          this.loading = false;
+        }
         console.error('❌ Erreur chargement posts:', err);
       },
     });
   }
 
+  private fetchPage(cursor: string | null): Observable<CursorPage<Post>> {
+    const params: Record<string, string> = { size: String(this.pageSize) };
+    if (cursor) {
+      params['cursor'] = cursor;
+    }
+    const search = this.filter.search?.trim();
+    if (search) {
+      params['q'] = search;
+      return this.http.get<CursorPage<Post>>(`${this.apiUrl}/search`, { headers: this.getHeaders(), params });
+    }
+    if (this.filter.category) {
+      return this.http.get<CursorPage<Post>>(
+        `${this.apiUrl}/category/${encodeURIComponent(this.filter.category)}`,
+        { headers: this.getHeaders(), params }
+      );
+    }
+    // GET /api/posts renvoie la liste, le curseur suivant est dans l'en-tête X-Next-Cursor
+    return this.http
+      .get<Post[]>(this.apiUrl, { headers: this.getHeaders(), params, observe: 'response' })
+      .pipe(map((response: HttpResponse<Post[]>) => this.toPage(response)));
+  }
+
+  private toPage(response: HttpResponse<Post[]>): CursorPage<Post> {
+    const nextCursor = response.headers.get('X-Next-Cursor');
+    return { items: response.body ?? [], nextCursor, hasMore: nextCursor !== null };
+  }
+
   addPost(postData: CreatePostRequest): Observable<Post> {
     const postRequest = {
       title: postData.title,